@@ -0,0 +1,81 @@
+package com.luanvv.codegen.spring.benchmark;
+
+import com.luanvv.codegen.spring.CodeGenConfig;
+import com.luanvv.codegen.spring.CodeGenerator;
+import com.luanvv.codegen.spring.MigrationIndex;
+import com.luanvv.codegen.spring.SchemaFixtures;
+import com.luanvv.codegen.spring.SqlMigrationGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full generation of all components for a schema, as the mojo does for every entity
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class CodeGeneratorBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int entities;
+
+    @Param({"5", "50", "200"})
+    private int fields;
+
+    private File directory;
+    private File outputDirectory;
+    private File testOutputDirectory;
+    private File resourceOutputDirectory;
+    private List<CodeGenConfig> schema;
+    private MigrationIndex migrationIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = SchemaFixtures.createTempDirectory();
+        outputDirectory = new File(directory, "generated-sources");
+        testOutputDirectory = new File(directory, "generated-test-sources");
+        resourceOutputDirectory = new File(directory, "generated-resources");
+        schema = SchemaFixtures.schema(entities, fields);
+
+        // Shared across entities like in the mojo
+        migrationIndex = new MigrationIndex(SqlMigrationGenerator.getMigrationDirectory(resourceOutputDirectory), null);
+        migrationIndex.load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SchemaFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int generateAll() throws IOException {
+        int files = 0;
+        for (CodeGenConfig config : schema) {
+            CodeGenerator generator = new CodeGenerator(config, outputDirectory, testOutputDirectory, resourceOutputDirectory);
+            generator.setMigrationIndex(migrationIndex);
+            generator.setMessageSink(message -> { });
+            generator.generateAll();
+            files += generator.getGeneratedFiles().size();
+        }
+        return files;
+    }
+}
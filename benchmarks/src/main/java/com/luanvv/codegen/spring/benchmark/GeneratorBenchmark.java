@@ -0,0 +1,83 @@
+package com.luanvv.codegen.spring.benchmark;
+
+import com.luanvv.codegen.spring.BaseGenerator;
+import com.luanvv.codegen.spring.CodeGenConfig;
+import com.luanvv.codegen.spring.ControllerGenerator;
+import com.luanvv.codegen.spring.EntityGenerator;
+import com.luanvv.codegen.spring.RepositoryGenerator;
+import com.luanvv.codegen.spring.SchemaFixtures;
+import com.luanvv.codegen.spring.ServiceGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each generator on its own for a single entity with a growing number of fields.
+ * After the first invocation the output is unchanged, so this measures rendering
+ * and the write-if-changed comparison.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+
+    @Param({"5", "50", "200"})
+    private int fields;
+
+    private File outputDirectory;
+    private CodeGenConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        outputDirectory = SchemaFixtures.createTempDirectory();
+        config = SchemaFixtures.entity(0, fields);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SchemaFixtures.deleteRecursively(outputDirectory);
+    }
+
+    @Benchmark
+    public BaseGenerator entityGenerator() throws IOException {
+        return run(new EntityGenerator(config, outputDirectory));
+    }
+
+    @Benchmark
+    public BaseGenerator repositoryGenerator() throws IOException {
+        return run(new RepositoryGenerator(config, outputDirectory));
+    }
+
+    @Benchmark
+    public BaseGenerator serviceGenerator() throws IOException {
+        return run(new ServiceGenerator(config, outputDirectory));
+    }
+
+    @Benchmark
+    public BaseGenerator controllerGenerator() throws IOException {
+        return run(new ControllerGenerator(config, outputDirectory));
+    }
+
+    private BaseGenerator run(BaseGenerator generator) throws IOException {
+        generator.setMessageSink(message -> { });
+        generator.generate();
+        return generator;
+    }
+}
@@ -0,0 +1,62 @@
+package com.luanvv.codegen.spring.benchmark;
+
+import com.luanvv.codegen.spring.CodeGenConfig;
+import com.luanvv.codegen.spring.SchemaFixtures;
+import com.luanvv.codegen.spring.YamlConfigParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a schema file with a growing number of entities and fields
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class YamlConfigParserBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int entities;
+
+    @Param({"5", "50", "200"})
+    private int fields;
+
+    private File directory;
+    private File schemaFile;
+    private YamlConfigParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = SchemaFixtures.createTempDirectory();
+        schemaFile = SchemaFixtures.writeSchemaFile(directory, entities, fields);
+        parser = new YamlConfigParser();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SchemaFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<CodeGenConfig> parseSchema() throws IOException {
+        return parser.parseAll(schemaFile);
+    }
+}
@@ -0,0 +1,152 @@
+package com.luanvv.codegen.spring.gradle;
+
+import com.luanvv.codegen.spring.CodeGenerator;
+import com.luanvv.codegen.spring.EntityModel;
+import com.luanvv.codegen.spring.MigrationIndex;
+import com.luanvv.codegen.spring.SqlMigrationGenerator;
+import com.luanvv.codegen.spring.YamlConfigParser;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.SkipWhenEmpty;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates Spring Boot code from YAML configuration files.
+ *
+ * The YAML files and options are the task inputs and the generated directories its outputs,
+ * so Gradle skips the task when nothing changed and restores its outputs from the build cache.
+ * The output directories are owned by the task and cleared before every run, which keeps the
+ * outputs a function of the inputs alone. Migrations are therefore kept stable through the
+ * existing migrations directory, an input holding the migrations already committed: entities
+ * with a migration there get none generated, and new migrations must be copied into it.
+ */
+@CacheableTask
+public abstract class GenerateSpringBootCodeTask extends DefaultTask {
+
+    /**
+     * YAML configuration files; only their content and relative paths affect the outputs
+     */
+    @InputFiles
+    @SkipWhenEmpty
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getConfigFiles();
+
+    /**
+     * How versions of new migration files are chosen; only "content-hash" is supported, since
+     * timestamp versions would make the outputs differ between runs
+     */
+    @Input
+    public abstract Property<String> getMigrationNaming();
+
+    /**
+     * Directory of the migrations already committed, which are never generated again
+     */
+    @InputFiles
+    @Optional
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract DirectoryProperty getExistingMigrationDirectory();
+
+    /**
+     * Layers generated for entities whose configuration does not list its own layers:
+     * sql, entity, repository, service, controller. All layers when empty.
+     */
+    @Input
+    @Optional
+    public abstract ListProperty<String> getLayers();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDirectory();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getTestOutputDirectory();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getResourceOutputDirectory();
+
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    @TaskAction
+    public void generate() {
+        File outputDirectory = getOutputDirectory().get().getAsFile();
+        File testOutputDirectory = getTestOutputDirectory().get().getAsFile();
+        File resourceOutputDirectory = getResourceOutputDirectory().get().getAsFile();
+        getFileSystemOperations().delete(spec -> spec.delete(outputDirectory, testOutputDirectory, resourceOutputDirectory));
+        outputDirectory.mkdirs();
+        testOutputDirectory.mkdirs();
+        resourceOutputDirectory.mkdirs();
+
+        SqlMigrationGenerator.MigrationNaming migrationNaming =
+                SqlMigrationGenerator.MigrationNaming.fromString(getMigrationNaming().get());
+        if (migrationNaming != SqlMigrationGenerator.MigrationNaming.CONTENT_HASH) {
+            throw new GradleException("migrationNaming '" + getMigrationNaming().get() + "' is not supported by "
+                    + "Gradle: timestamp versions differ between runs, so the task outputs could not be cached. "
+                    + "Use 'content-hash'.");
+        }
+        List<String> layers = getLayers().getOrElse(Collections.emptyList());
+        Set<CodeGenerator.Layer> defaultLayers = layers.isEmpty()
+                ? EnumSet.allOf(CodeGenerator.Layer.class) : CodeGenerator.Layer.parse(layers);
+        // The resource output directory was just cleared, so only committed migrations are indexed
+        File existingMigrationDirectory = getExistingMigrationDirectory().isPresent()
+                ? getExistingMigrationDirectory().get().getAsFile() : null;
+        MigrationIndex migrationIndex = new MigrationIndex(existingMigrationDirectory != null
+                ? existingMigrationDirectory : SqlMigrationGenerator.getMigrationDirectory(resourceOutputDirectory), null);
+        try {
+            migrationIndex.load();
+        } catch (IOException e) {
+            throw new GradleException("Failed to index migration files", e);
+        }
+        YamlConfigParser parser = new YamlConfigParser();
+
+        int fileOrder = 0;
+        for (File configFile : getConfigFiles().getFiles()) {
+            getLogger().info("Processing configuration file: {}", configFile.getAbsolutePath());
+            int currentFileOrder = ++fileOrder;
+            int[] entityOrder = {0};
+            try {
+                parser.parse(configFile, config -> {
+                    CodeGenerator generator = new CodeGenerator(new EntityModel(config), outputDirectory, testOutputDirectory,
+                            resourceOutputDirectory);
+                    generator.setMigrationIndex(migrationIndex);
+                    generator.setMigrationNaming(migrationNaming);
+                    generator.setDefaultLayers(defaultLayers);
+                    generator.setDeclarationOrder(currentFileOrder, ++entityOrder[0]);
+                    generator.setMessageSink(getLogger()::info);
+                    generator.setWarningSink(getLogger()::warn);
+                    generator.generateAll();
+                    getLogger().info("Generated code for entity: {}", config.getEntityName());
+                });
+            } catch (IOException | RuntimeException e) {
+                throw new GradleException("Failed to process config file: " + configFile.getAbsolutePath(), e);
+            }
+        }
+
+        // The output directory was cleared, so every migration in it is new
+        String[] newMigrations = SqlMigrationGenerator.getMigrationDirectory(resourceOutputDirectory).list();
+        if (newMigrations != null && newMigrations.length > 0 && existingMigrationDirectory != null) {
+            getLogger().warn("New migration files {} were generated; copy them to {} to keep their names stable",
+                    Arrays.toString(newMigrations), existingMigrationDirectory);
+        }
+    }
+}
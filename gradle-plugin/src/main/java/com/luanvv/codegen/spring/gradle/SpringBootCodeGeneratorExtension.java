@@ -0,0 +1,59 @@
+package com.luanvv.codegen.spring.gradle;
+
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+
+/**
+ * Configuration of the code generator in a Gradle build script:
+ *
+ * <pre>
+ * springBootCodeGenerator {
+ *     configFiles.from('src/main/resources/codegen/user.yaml', 'src/main/resources/codegen/product.yaml')
+ *     migrationNaming = 'content-hash'
+ *     layers = ['sql', 'entity', 'repository']
+ * }
+ * </pre>
+ */
+public abstract class SpringBootCodeGeneratorExtension {
+
+    /**
+     * YAML configuration files (defaults to src/main/resources/codegen.yaml)
+     */
+    public abstract ConfigurableFileCollection getConfigFiles();
+
+    /**
+     * How versions of new migration files are chosen: "content-hash" (default and the only mode
+     * supported by Gradle, since timestamp versions would defeat the build cache)
+     */
+    public abstract Property<String> getMigrationNaming();
+
+    /**
+     * Directory of the migrations already committed (defaults to src/main/resources/db/migration).
+     * Entities with a migration there get none generated; copy new migrations from the resource
+     * output directory into it, so that a later change of sqlFileContent does not rename them.
+     */
+    public abstract DirectoryProperty getExistingMigrationDirectory();
+
+    /**
+     * Layers generated for entities whose configuration does not list its own layers:
+     * sql, entity, repository, service, controller (defaults to all)
+     */
+    public abstract ListProperty<String> getLayers();
+
+    /**
+     * Output directory for generated Java sources
+     */
+    public abstract DirectoryProperty getOutputDirectory();
+
+    /**
+     * Output directory for generated test sources
+     */
+    public abstract DirectoryProperty getTestOutputDirectory();
+
+    /**
+     * Output directory for generated resources (SQL files)
+     */
+    public abstract DirectoryProperty getResourceOutputDirectory();
+}
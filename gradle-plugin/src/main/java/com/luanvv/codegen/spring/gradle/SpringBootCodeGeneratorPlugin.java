@@ -0,0 +1,56 @@
+package com.luanvv.codegen.spring.gradle;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskProvider;
+
+/**
+ * Gradle plugin that registers the generateSpringBootCode task and, for Java projects,
+ * adds its output directories to the main and test source sets so that compilation
+ * depends on generation
+ */
+public class SpringBootCodeGeneratorPlugin implements Plugin<Project> {
+
+    public static final String EXTENSION_NAME = "springBootCodeGenerator";
+    public static final String TASK_NAME = "generateSpringBootCode";
+
+    @Override
+    public void apply(Project project) {
+        ProjectLayout layout = project.getLayout();
+        SpringBootCodeGeneratorExtension extension =
+                project.getExtensions().create(EXTENSION_NAME, SpringBootCodeGeneratorExtension.class);
+        extension.getConfigFiles().convention(layout.getProjectDirectory().file("src/main/resources/codegen.yaml"));
+        // Reproducible migration names keep the task outputs cacheable
+        extension.getMigrationNaming().convention("content-hash");
+        extension.getExistingMigrationDirectory().convention(layout.getProjectDirectory().dir("src/main/resources/db/migration"));
+        extension.getOutputDirectory().convention(layout.getBuildDirectory().dir("generated/sources/codegen/java/main"));
+        extension.getTestOutputDirectory().convention(layout.getBuildDirectory().dir("generated/sources/codegen/java/test"));
+        extension.getResourceOutputDirectory().convention(layout.getBuildDirectory().dir("generated/resources/codegen"));
+
+        TaskProvider<GenerateSpringBootCodeTask> generateTask =
+                project.getTasks().register(TASK_NAME, GenerateSpringBootCodeTask.class, task -> {
+                    task.setGroup("build");
+                    task.setDescription("Generates Spring Boot code from YAML configuration files.");
+                    task.getConfigFiles().from(extension.getConfigFiles());
+                    task.getMigrationNaming().set(extension.getMigrationNaming());
+                    task.getLayers().set(extension.getLayers());
+                    task.getExistingMigrationDirectory().set(extension.getExistingMigrationDirectory());
+                    task.getOutputDirectory().set(extension.getOutputDirectory());
+                    task.getTestOutputDirectory().set(extension.getTestOutputDirectory());
+                    task.getResourceOutputDirectory().set(extension.getResourceOutputDirectory());
+                });
+
+        project.getPlugins().withType(JavaPlugin.class, javaPlugin -> {
+            SourceSetContainer sourceSets = project.getExtensions().getByType(SourceSetContainer.class);
+            sourceSets.getByName("main").getJava()
+                    .srcDir(generateTask.flatMap(GenerateSpringBootCodeTask::getOutputDirectory));
+            sourceSets.getByName("main").getResources()
+                    .srcDir(generateTask.flatMap(GenerateSpringBootCodeTask::getResourceOutputDirectory));
+            sourceSets.getByName("test").getJava()
+                    .srcDir(generateTask.flatMap(GenerateSpringBootCodeTask::getTestOutputDirectory));
+        });
+    }
+}
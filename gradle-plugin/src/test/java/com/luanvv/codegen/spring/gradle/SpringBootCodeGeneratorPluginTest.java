@@ -0,0 +1,119 @@
+package com.luanvv.codegen.spring.gradle;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+/**
+ * Functional test running the plugin in a Gradle build
+ */
+public class SpringBootCodeGeneratorPluginTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testGenerationIsUpToDateAndCacheable() throws Exception {
+        File projectDir = createProject();
+
+        BuildResult first = run(projectDir, "generateSpringBootCode");
+        assertEquals(TaskOutcome.SUCCESS, first.task(":generateSpringBootCode").getOutcome());
+        File entityFile = new File(projectDir, "build/generated/sources/codegen/java/main/com/example/demo/entity/User.java");
+        assertTrue("Entity should be generated", entityFile.exists());
+        File[] migrations = new File(projectDir, "build/generated/resources/codegen/db/migration").listFiles();
+        assertNotNull(migrations);
+        assertEquals(1, migrations.length);
+
+        BuildResult second = run(projectDir, "generateSpringBootCode");
+        assertEquals(TaskOutcome.UP_TO_DATE, second.task(":generateSpringBootCode").getOutcome());
+
+        // Fresh workspace: outputs come from the build cache
+        run(projectDir, "clean");
+        BuildResult third = run(projectDir, "generateSpringBootCode");
+        assertEquals(TaskOutcome.FROM_CACHE, third.task(":generateSpringBootCode").getOutcome());
+        assertTrue("Entity should be restored", entityFile.exists());
+
+        // The default layers are an input of the task
+        Files.write(new File(projectDir, "build.gradle").toPath(),
+                "springBootCodeGenerator { layers = ['sql', 'entity'] }\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        BuildResult fourth = run(projectDir, "generateSpringBootCode");
+        assertEquals(TaskOutcome.SUCCESS, fourth.task(":generateSpringBootCode").getOutcome());
+        assertTrue(entityFile.exists());
+        assertFalse("Deselected layers should not be generated", new File(projectDir,
+                "build/generated/sources/codegen/java/main/com/example/demo/repository/UserRepository.java").exists());
+    }
+
+    @Test
+    public void testCommittedMigrationsAreNotGeneratedAgain() throws Exception {
+        File projectDir = createProject();
+        BuildResult first = run(projectDir, "generateSpringBootCode");
+        assertTrue(first.getOutput().contains("New migration files"));
+        File generatedMigrations = new File(projectDir, "build/generated/resources/codegen/db/migration");
+        File migration = generatedMigrations.listFiles()[0];
+
+        // Once committed, the migration keeps its name when sqlFileContent changes
+        File committedMigrations = new File(projectDir, "src/main/resources/db/migration");
+        committedMigrations.mkdirs();
+        Files.copy(migration.toPath(), new File(committedMigrations, migration.getName()).toPath());
+        Files.write(new File(projectDir, "src/main/resources/codegen.yaml").toPath(),
+                "  -- changed\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        BuildResult second = run(projectDir, "generateSpringBootCode");
+        assertEquals(TaskOutcome.SUCCESS, second.task(":generateSpringBootCode").getOutcome());
+        assertFalse(second.getOutput().contains("New migration files"));
+        String[] regenerated = generatedMigrations.list();
+        assertTrue(regenerated == null || regenerated.length == 0);
+
+        // Timestamp versions would differ between runs of the cacheable task
+        Files.write(new File(projectDir, "build.gradle").toPath(),
+                "springBootCodeGenerator { migrationNaming = 'timestamp' }\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        BuildResult rejected = GradleRunner.create()
+                .withProjectDir(projectDir)
+                .withArguments("generateSpringBootCode")
+                .withPluginClasspath()
+                .buildAndFail();
+        assertTrue(rejected.getOutput().contains("migrationNaming 'timestamp' is not supported"));
+    }
+
+    /**
+     * Create a Java project applying the plugin to the sample configuration, with a local build cache
+     */
+    private File createProject() throws Exception {
+        File projectDir = tempFolder.newFolder();
+        File resources = new File(projectDir, "src/main/resources");
+        resources.mkdirs();
+        Files.copy(new File("../src/test/resources/sample-config.yaml").toPath(),
+                new File(resources, "codegen.yaml").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        write(new File(projectDir, "settings.gradle"), "rootProject.name = 'sample'\n"
+                + "buildCache { local { directory = '" + tempFolder.newFolder().toURI() + "' } }\n");
+        write(new File(projectDir, "build.gradle"), "plugins {\n"
+                + "    id 'java'\n"
+                + "    id 'com.luanvv.codegen.spring'\n"
+                + "}\n");
+        return projectDir;
+    }
+
+    private BuildResult run(File projectDir, String task) {
+        return GradleRunner.create()
+                .withProjectDir(projectDir)
+                .withArguments(task, "--build-cache")
+                .withPluginClasspath()
+                .build();
+    }
+
+    private void write(File file, String content) throws Exception {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
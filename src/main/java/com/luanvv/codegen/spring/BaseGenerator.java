@@ -1,7 +1,16 @@
 package com.luanvv.codegen.spring;
 
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Base class for all code generators
@@ -9,12 +18,29 @@ import java.io.IOException;
 public abstract class BaseGenerator {
     
     protected final CodeGenConfig config;
+    protected final EntityModel model;
     protected final File outputDirectory;
     protected boolean skipIfExists = false;
     protected boolean forceRegenerate = false;
+    protected GeneratorOutput output = FileSystemOutput.INSTANCE;
+    private final List<File> generatedFiles = new ArrayList<>();
+    private Consumer<String> messageSink = System.out::println;
+    private int writtenFileCount;
+    private int unchangedFileCount;
+    private int skippedFileCount;
+    private long bytesWritten;
+    private long writeNanos;
 
     public BaseGenerator(CodeGenConfig config, File outputDirectory) {
-        this.config = config;
+        this(new EntityModel(config), outputDirectory);
+    }
+
+    /**
+     * Create a generator for an already resolved entity
+     */
+    public BaseGenerator(EntityModel model, File outputDirectory) {
+        this.config = model.getConfig();
+        this.model = model;
         this.outputDirectory = outputDirectory;
     }
 
@@ -26,6 +52,27 @@ public abstract class BaseGenerator {
         this.forceRegenerate = forceRegenerate;
     }
 
+    /**
+     * Set where files are written (defaults to the file system)
+     */
+    public void setOutput(GeneratorOutput output) {
+        this.output = output;
+    }
+
+    /**
+     * Set where progress messages are reported (defaults to standard output)
+     */
+    public void setMessageSink(Consumer<String> messageSink) {
+        this.messageSink = messageSink;
+    }
+
+    /**
+     * Report a progress message
+     */
+    protected void log(String message) {
+        messageSink.accept(message);
+    }
+
     /**
      * Generate the component
      */
@@ -41,17 +88,14 @@ public abstract class BaseGenerator {
      * Ensure the package directory exists
      */
     protected void createPackageDirectory() {
-        File packageDir = getPackageDirectory();
-        if (!packageDir.exists()) {
-            packageDir.mkdirs();
-        }
+        output.createDirectories(getPackageDirectory());
     }
 
     /**
      * Check if a file should be skipped based on override settings
      */
     protected boolean shouldSkipFile(File targetFile) {
-        if (!targetFile.exists()) {
+        if (!output.exists(targetFile)) {
             return false; // File doesn't exist, don't skip
         }
         
@@ -60,13 +104,88 @@ public abstract class BaseGenerator {
         }
         
         if (skipIfExists) {
-            System.out.println("Skipping generation of " + targetFile.getName() + " (file already exists)");
+            log("Skipping generation of " + targetFile.getName() + " (file already exists)");
+            skippedFileCount++;
             return true; // Skip because file exists and skipIfExists is true
         }
         
         return false; // Default: regenerate
     }
 
+    /**
+     * Write a generated Java file to the output directory and record it as an output.
+     * The file is rendered in memory and only written when its content differs from the
+     * existing file, so unchanged sources keep their timestamp and are not recompiled.
+     */
+    protected void writeJavaFile(JavaFile javaFile) throws IOException {
+        writeFile(getJavaFile(javaFile), javaFile.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write generated content to a file unless it already has this content, and record it as an output
+     */
+    protected void writeFile(File targetFile, byte[] content) throws IOException {
+        long start = System.nanoTime();
+        if (output.write(targetFile, content)) {
+            writtenFileCount++;
+            bytesWritten += content.length;
+        } else {
+            unchangedFileCount++;
+        }
+        writeNanos += System.nanoTime() - start;
+        generatedFiles.add(targetFile);
+    }
+
+    /**
+     * Get the file a JavaFile is written to inside the output directory
+     */
+    protected File getJavaFile(JavaFile javaFile) {
+        String packagePath = javaFile.packageName.replace('.', File.separatorChar);
+        return new File(new File(outputDirectory, packagePath), javaFile.typeSpec.name + ".java");
+    }
+
+    /**
+     * Get the files written by this generator
+     */
+    public List<File> getGeneratedFiles() {
+        return Collections.unmodifiableList(generatedFiles);
+    }
+
+    /**
+     * Get the number of files written because their content changed
+     */
+    public int getWrittenFileCount() {
+        return writtenFileCount;
+    }
+
+    /**
+     * Get the number of files left untouched because their content was unchanged
+     */
+    public int getUnchangedFileCount() {
+        return unchangedFileCount;
+    }
+
+    /**
+     * Get the number of files not generated because they already exist and skipIfExists is set
+     */
+    public int getSkippedFileCount() {
+        return skippedFileCount;
+    }
+
+    /**
+     * Get the number of bytes written to changed files
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Get the time spent comparing and writing files, in nanoseconds
+     */
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
     /**
      * Get the target file for a given class name and package
      */
@@ -79,6 +198,24 @@ public abstract class BaseGenerator {
         return new File(packageDir, className + ".java");
     }
 
+    /**
+     * Build an expression converting a String expression to the Java type of a field
+     */
+    protected CodeBlock fromString(EntityModel.FieldModel field, String expression) {
+        switch (field.getType()) {
+            case "Long":
+                return CodeBlock.of("$T.valueOf($L)", Long.class, expression);
+            case "Integer":
+                return CodeBlock.of("$T.valueOf($L)", Integer.class, expression);
+            case "Boolean":
+                return CodeBlock.of("$T.valueOf($L)", Boolean.class, expression);
+            case "LocalDateTime":
+                return CodeBlock.of("$T.parse($L)", LocalDateTime.class, expression);
+            default:
+                return CodeBlock.of("$L", expression);
+        }
+    }
+
     /**
      * Convert camelCase to snake_case
      */
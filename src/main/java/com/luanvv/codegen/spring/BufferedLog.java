@@ -0,0 +1,122 @@
+package com.luanvv.codegen.spring;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Maven log that holds messages back until {@link #flush()}, so that the output of one module
+ * is printed as a single block instead of interleaving with other modules in a parallel build
+ */
+class BufferedLog implements Log {
+
+    // Shared by all modules so that flushed blocks never interleave
+    private static final Object OUTPUT_LOCK = new Object();
+
+    private final Log target;
+    private final List<Consumer<Log>> entries = new ArrayList<>();
+
+    BufferedLog(Log target) {
+        this.target = target;
+    }
+
+    /**
+     * Print all buffered messages to the target log
+     */
+    void flush() {
+        List<Consumer<Log>> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(entries);
+            entries.clear();
+        }
+        synchronized (OUTPUT_LOCK) {
+            pending.forEach(entry -> entry.accept(target));
+        }
+    }
+
+    private synchronized void add(Consumer<Log> entry) {
+        entries.add(entry);
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return target.isDebugEnabled();
+    }
+
+    @Override
+    public void debug(CharSequence content) {
+        add(log -> log.debug(content));
+    }
+
+    @Override
+    public void debug(CharSequence content, Throwable error) {
+        add(log -> log.debug(content, error));
+    }
+
+    @Override
+    public void debug(Throwable error) {
+        add(log -> log.debug(error));
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return target.isInfoEnabled();
+    }
+
+    @Override
+    public void info(CharSequence content) {
+        add(log -> log.info(content));
+    }
+
+    @Override
+    public void info(CharSequence content, Throwable error) {
+        add(log -> log.info(content, error));
+    }
+
+    @Override
+    public void info(Throwable error) {
+        add(log -> log.info(error));
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return target.isWarnEnabled();
+    }
+
+    @Override
+    public void warn(CharSequence content) {
+        add(log -> log.warn(content));
+    }
+
+    @Override
+    public void warn(CharSequence content, Throwable error) {
+        add(log -> log.warn(content, error));
+    }
+
+    @Override
+    public void warn(Throwable error) {
+        add(log -> log.warn(error));
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return target.isErrorEnabled();
+    }
+
+    @Override
+    public void error(CharSequence content) {
+        add(log -> log.error(content));
+    }
+
+    @Override
+    public void error(CharSequence content, Throwable error) {
+        add(log -> log.error(content, error));
+    }
+
+    @Override
+    public void error(Throwable error) {
+        add(log -> log.error(error));
+    }
+}
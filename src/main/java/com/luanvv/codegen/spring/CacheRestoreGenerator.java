@@ -0,0 +1,38 @@
+package com.luanvv.codegen.spring;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generator that restores previously generated sources from the {@link GenerationCache}
+ * instead of rendering them, applying the same override rules as the other generators:
+ * only the entity, the service implementation and the controller may be kept when they
+ * exist, and all other files are always rewritten
+ */
+public class CacheRestoreGenerator extends BaseGenerator {
+
+    private final List<GenerationCache.CachedFile> cachedFiles;
+
+    public CacheRestoreGenerator(EntityModel model, File outputDirectory, List<GenerationCache.CachedFile> cachedFiles) {
+        super(model, outputDirectory);
+        this.cachedFiles = cachedFiles;
+    }
+
+    @Override
+    public void generate() throws IOException {
+        Set<File> overridableFiles = Set.of(
+                getTargetFile(model.getEntityClass().simpleName(), "entity").getAbsoluteFile(),
+                getTargetFile(model.getServiceImplClass().simpleName(), "service").getAbsoluteFile(),
+                getTargetFile(model.getControllerClass().simpleName(), "controller").getAbsoluteFile());
+        for (GenerationCache.CachedFile cachedFile : cachedFiles) {
+            File targetFile = new File(outputDirectory, cachedFile.getRelativePath().replace('/', File.separatorChar));
+            if (overridableFiles.contains(targetFile.getAbsoluteFile()) && shouldSkipFile(targetFile)) {
+                continue;
+            }
+            writeFile(targetFile, cachedFile.getContent());
+        }
+        log("Restored " + config.getEntityName() + " sources from generation cache (" + cachedFiles.size() + " files)");
+    }
+}
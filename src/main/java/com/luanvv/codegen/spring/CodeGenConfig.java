@@ -1,6 +1,7 @@
 package com.luanvv.codegen.spring;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration model for code generation
@@ -12,6 +13,14 @@ public class CodeGenConfig {
     private List<String> idFields;
     private List<Field> fields;
     private String sqlFileContent;
+    private String migrationVersion;
+    private List<String> layers;
+    private Pagination pagination;
+    private KeysetPagination keysetPagination;
+    private Export export;
+    private Batch batch;
+    private IdGeneration idGeneration;
+    private Map<String, List<String>> views;
 
     // Default constructor
     public CodeGenConfig() {}
@@ -61,6 +70,110 @@ public class CodeGenConfig {
         this.sqlFileContent = sqlFileContent;
     }
 
+    public String getMigrationVersion() {
+        return migrationVersion;
+    }
+
+    public void setMigrationVersion(String migrationVersion) {
+        this.migrationVersion = migrationVersion;
+    }
+
+    /**
+     * Get the layers to generate for this entity, or null to use the plugin default
+     */
+    public List<String> getLayers() {
+        return layers;
+    }
+
+    public void setLayers(List<String> layers) {
+        this.layers = layers;
+    }
+
+    /**
+     * Get the pagination of the list endpoint, or null to return all entities as a list
+     */
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public void setPagination(Pagination pagination) {
+        this.pagination = pagination;
+    }
+
+    /**
+     * Get the keyset pagination endpoint, or null to generate none
+     */
+    public KeysetPagination getKeysetPagination() {
+        return keysetPagination;
+    }
+
+    public void setKeysetPagination(KeysetPagination keysetPagination) {
+        this.keysetPagination = keysetPagination;
+    }
+
+    /**
+     * Get the streaming export endpoint, or null to generate none
+     */
+    public Export getExport() {
+        return export;
+    }
+
+    public void setExport(Export export) {
+        this.export = export;
+    }
+
+    /**
+     * Get the batch write endpoints, or null to generate none
+     */
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * Get the named views of the entity, each a list of the fields it selects, or null for none
+     */
+    public Map<String, List<String>> getViews() {
+        return views;
+    }
+
+    public void setViews(Map<String, List<String>> views) {
+        this.views = views;
+    }
+
+    /**
+     * Get how id values are generated, or null for database identity columns
+     */
+    public IdGeneration getIdGeneration() {
+        return idGeneration;
+    }
+
+    public void setIdGeneration(IdGeneration idGeneration) {
+        this.idGeneration = idGeneration;
+    }
+
+    /**
+     * Check if ids are taken from a database sequence instead of an identity column
+     */
+    public boolean isSequenceIdGeneration() {
+        return idGeneration != null && "sequence".equals(idGeneration.getStrategy());
+    }
+
+    /**
+     * Get the name of the id sequence: the configured one, or else the table name with a _seq suffix
+     */
+    public String getEffectiveSequenceName() {
+        if (idGeneration != null && idGeneration.getSequenceName() != null
+                && !idGeneration.getSequenceName().trim().isEmpty()) {
+            return idGeneration.getSequenceName();
+        }
+        String effectiveTableName = getEffectiveTableName();
+        return effectiveTableName != null ? effectiveTableName + "_seq" : null;
+    }
+
     /**
      * Get the effective table name to use.
      * Returns the custom tableName if provided, otherwise defaults to entityName + "s" in lowercase.
@@ -148,7 +261,251 @@ public class CodeGenConfig {
                     ", defaultValue='" + defaultValue + '\'' +
                     '}';
         }
-    }    @Override
+    }
+
+    /**
+     * Pagination of the generated list endpoint
+     */
+    public static class Pagination {
+        private int defaultSize = 20;
+        private int maxSize = 100;
+        private List<String> sortableFields;
+        private String mode = "page";
+
+        public Pagination() {}
+
+        /**
+         * Get the page size used when a request does not specify one
+         */
+        public int getDefaultSize() {
+            return defaultSize;
+        }
+
+        public void setDefaultSize(int defaultSize) {
+            this.defaultSize = defaultSize;
+        }
+
+        /**
+         * Get the largest page size a request may ask for; larger sizes are reduced to it
+         */
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * Get the fields a request may sort by, or null to allow sorting by the id fields only
+         */
+        public List<String> getSortableFields() {
+            return sortableFields;
+        }
+
+        public void setSortableFields(List<String> sortableFields) {
+            this.sortableFields = sortableFields;
+        }
+
+        /**
+         * Get the page type: "page" (with total count) or "slice" (without the count query)
+         */
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        @Override
+        public String toString() {
+            return "Pagination{" +
+                    "defaultSize=" + defaultSize +
+                    ", maxSize=" + maxSize +
+                    ", sortableFields=" + sortableFields +
+                    ", mode='" + mode + '\'' +
+                    '}';
+        }
+    }
+
+    /**
+     * Keyset (seek) pagination: each page continues after the sort key of the last entity
+     * of the previous page, so reading a page costs the same at any depth
+     */
+    public static class KeysetPagination {
+        private List<String> sortKeys;
+        private int defaultLimit = 20;
+        private int maxLimit = 100;
+
+        public KeysetPagination() {}
+
+        /**
+         * Get the fields pages are ordered by, ending with an id field, or null for the first id field
+         */
+        public List<String> getSortKeys() {
+            return sortKeys;
+        }
+
+        public void setSortKeys(List<String> sortKeys) {
+            this.sortKeys = sortKeys;
+        }
+
+        /**
+         * Get the number of entities per page when a request does not specify one
+         */
+        public int getDefaultLimit() {
+            return defaultLimit;
+        }
+
+        public void setDefaultLimit(int defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+
+        /**
+         * Get the largest number of entities a request may ask for; larger limits are reduced to it
+         */
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        @Override
+        public String toString() {
+            return "KeysetPagination{" +
+                    "sortKeys=" + sortKeys +
+                    ", defaultLimit=" + defaultLimit +
+                    ", maxLimit=" + maxLimit +
+                    '}';
+        }
+    }
+
+    /**
+     * Streaming export of all entities as newline-delimited JSON, read through a
+     * database cursor instead of loading the whole table
+     */
+    public static class Export {
+        private int fetchSize = 500;
+
+        public Export() {}
+
+        /**
+         * Get the number of rows the JDBC driver fetches per round trip
+         */
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        @Override
+        public String toString() {
+            return "Export{" +
+                    "fetchSize=" + fetchSize +
+                    '}';
+        }
+    }
+
+    /**
+     * Batch create, update and delete endpoints, written in chunks of one transaction each
+     */
+    public static class Batch {
+        private int size = 50;
+        private int maxItems = 1000;
+
+        public Batch() {}
+
+        /**
+         * Get the number of entities written per transaction, which should match hibernate.jdbc.batch_size
+         */
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Get the largest number of entities a request may contain
+         */
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+
+        @Override
+        public String toString() {
+            return "Batch{" +
+                    "size=" + size +
+                    ", maxItems=" + maxItems +
+                    '}';
+        }
+    }
+
+    /**
+     * Generation of numeric id values. With a sequence, Hibernate reserves allocationSize ids
+     * per sequence call and can batch inserts, which identity columns prevent.
+     */
+    public static class IdGeneration {
+        private String strategy = "identity";
+        private String sequenceName;
+        private int allocationSize = 50;
+
+        public IdGeneration() {}
+
+        /**
+         * Get the strategy: identity (the database assigns ids on insert) or sequence
+         */
+        public String getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(String strategy) {
+            this.strategy = strategy;
+        }
+
+        /**
+         * Get the name of the sequence, or null for the table name with a _seq suffix
+         */
+        public String getSequenceName() {
+            return sequenceName;
+        }
+
+        public void setSequenceName(String sequenceName) {
+            this.sequenceName = sequenceName;
+        }
+
+        /**
+         * Get the number of ids reserved per sequence call, which is also the increment of the sequence
+         */
+        public int getAllocationSize() {
+            return allocationSize;
+        }
+
+        public void setAllocationSize(int allocationSize) {
+            this.allocationSize = allocationSize;
+        }
+
+        @Override
+        public String toString() {
+            return "IdGeneration{" +
+                    "strategy='" + strategy + '\'' +
+                    ", sequenceName='" + sequenceName + '\'' +
+                    ", allocationSize=" + allocationSize +
+                    '}';
+        }
+    }
+
+    @Override
     public String toString() {
         return "CodeGenConfig{" +
                 "packageName='" + packageName + '\'' +
@@ -157,6 +514,14 @@ public class CodeGenConfig {
                 ", idFields=" + idFields +
                 ", fields=" + fields +
                 ", sqlFileContent='" + sqlFileContent + '\'' +
+                ", migrationVersion='" + migrationVersion + '\'' +
+                ", layers=" + layers +
+                ", pagination=" + pagination +
+                ", keysetPagination=" + keysetPagination +
+                ", export=" + export +
+                ", batch=" + batch +
+                ", idGeneration=" + idGeneration +
+                ", views=" + views +
                 '}';
     }
 }
@@ -2,21 +2,60 @@ package com.luanvv.codegen.spring;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 /**
  * Main code generator that orchestrates the generation of all components
  */
 public class CodeGenerator {
-    
+
     private final CodeGenConfig config;
+    private final EntityModel model;
     private final File outputDirectory;
     private final File testOutputDirectory;
     private final File resourceOutputDirectory;
     private boolean skipIfExists = false;
     private boolean forceRegenerate = false;
+    private SqlMigrationGenerator.MigrationNaming migrationNaming = SqlMigrationGenerator.MigrationNaming.TIMESTAMP;
+    private int fileOrder = 1;
+    private int entityOrder = 1;
+    private MigrationIndex migrationIndex;
+    private Set<Layer> defaultLayers = EnumSet.allOf(Layer.class);
+    private ForkJoinPool executor;
+    private GenerationCache cache;
+    private GeneratorOutput output = FileSystemOutput.INSTANCE;
+    private String cacheSettings;
+    private Consumer<String> messageSink = System.out::println;
+    private Consumer<String> warningSink = message -> System.out.println("WARNING: " + message);
+    private final List<File> generatedFiles = new ArrayList<>();
+    private int writtenFileCount;
+    private int unchangedFileCount;
+    private int skippedFileCount;
+    private long bytesWritten;
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
 
     public CodeGenerator(CodeGenConfig config, File outputDirectory, File testOutputDirectory, File resourceOutputDirectory) {
-        this.config = config;
+        this(new EntityModel(config), outputDirectory, testOutputDirectory, resourceOutputDirectory);
+    }
+
+    /**
+     * Create a generator for an already resolved entity, shared by all its generators
+     */
+    public CodeGenerator(EntityModel model, File outputDirectory, File testOutputDirectory, File resourceOutputDirectory) {
+        this.config = model.getConfig();
+        this.model = model;
         this.outputDirectory = outputDirectory;
         this.testOutputDirectory = testOutputDirectory;
         this.resourceOutputDirectory = resourceOutputDirectory;
@@ -30,63 +69,405 @@ public class CodeGenerator {
         this.forceRegenerate = forceRegenerate;
     }
 
+    /**
+     * Set how versions of new migration files are chosen
+     */
+    public void setMigrationNaming(SqlMigrationGenerator.MigrationNaming migrationNaming) {
+        this.migrationNaming = migrationNaming;
+    }
+
+    /**
+     * Set the position of the entity among all configured entities, which orders its migration
+     * file with content-hash naming: the position of its configuration file and its position
+     * within that file (both starting at 1)
+     */
+    public void setDeclarationOrder(int fileOrder, int entityOrder) {
+        this.fileOrder = fileOrder;
+        this.entityOrder = entityOrder;
+    }
+
+    /**
+     * Set the layers generated for entities whose configuration does not list its own (defaults to all)
+     */
+    public void setDefaultLayers(Set<Layer> defaultLayers) {
+        this.defaultLayers = EnumSet.copyOf(defaultLayers);
+    }
+
+    /**
+     * Get the layers generated for the entity: those of its configuration, or the default layers
+     */
+    public Set<Layer> getLayers() {
+        return config.getLayers() != null ? Layer.parse(config.getLayers()) : EnumSet.copyOf(defaultLayers);
+    }
+
+    /**
+     * Share an index of the migration directory between generators instead of listing it per entity
+     */
+    public void setMigrationIndex(MigrationIndex migrationIndex) {
+        this.migrationIndex = migrationIndex;
+    }
+
+    /**
+     * Restore generated sources from a cache when the same configuration was generated before,
+     * and store newly generated sources in it
+     *
+     * @param settings the plugin version and options that influence the generated sources
+     */
+    public void setCache(GenerationCache cache, String settings) {
+        this.cache = cache;
+        this.cacheSettings = settings;
+    }
+
+    /**
+     * Set where all generators write their files (defaults to the file system)
+     */
+    public void setOutput(GeneratorOutput output) {
+        this.output = output;
+    }
+
+    /**
+     * Run the independent generators concurrently in the given pool.
+     * When no pool is set (the default) the generators run one after another.
+     */
+    public void setExecutor(ForkJoinPool executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Set where progress messages are reported (defaults to standard output).
+     * Messages are always reported in generator order, also when running concurrently.
+     */
+    public void setMessageSink(Consumer<String> messageSink) {
+        this.messageSink = messageSink;
+    }
+
+    /**
+     * Set where warnings are reported (defaults to standard output).
+     * Warnings keep their place among the progress messages.
+     */
+    public void setWarningSink(Consumer<String> warningSink) {
+        this.warningSink = warningSink;
+    }
+
     /**
      * Generate all components
      */
     public void generateAll() throws IOException {
+        generatedFiles.clear();
+        writtenFileCount = 0;
+        unchangedFileCount = 0;
+        skippedFileCount = 0;
+        bytesWritten = 0;
+        phaseNanos.clear();
+
         // Create package directories
         createPackageDirectories();
 
-        // Generate SQL migration file
-        generateSqlMigration();
+        // SQL migration file, Entity class, Repository interface,
+        // Service interface and implementation, REST Controller, as far as selected
+        Set<Layer> layers = getLayers();
+        SqlMigrationGenerator sqlGenerator = layers.contains(Layer.SQL)
+                ? new SqlMigrationGenerator(config, resourceOutputDirectory) : null;
+        // The same configuration generates different sources for other layers
+        String cacheKey = cache != null ? GenerationCache.keyOf(config, cacheSettings + "|" + layers) : null;
+        List<GenerationCache.CachedFile> cachedFiles = cacheKey != null ? loadFromCache(cacheKey) : null;
+        List<BaseGenerator> generators = new ArrayList<>();
+        if (cachedFiles != null) {
+            generators.add(new CacheRestoreGenerator(model, outputDirectory, cachedFiles));
+        } else {
+            if (layers.contains(Layer.ENTITY)) {
+                generators.add(new EntityGenerator(model, outputDirectory));
+            }
+            if (layers.contains(Layer.REPOSITORY)) {
+                generators.add(new RepositoryGenerator(model, outputDirectory));
+            }
+            if (layers.contains(Layer.SERVICE)) {
+                generators.add(new ServiceGenerator(model, outputDirectory));
+            }
+            if (layers.contains(Layer.CONTROLLER)) {
+                generators.add(new ControllerGenerator(model, outputDirectory));
+            }
+        }
 
-        // Generate Entity class
-        generateEntity();
+        // Each generator reports into its own buffer so the output order does not depend on scheduling
+        List<List<Runnable>> messages = new ArrayList<>();
+        List<GenerationStep> steps = new ArrayList<>();
+        // Each step only writes its own slot, so no synchronization is needed
+        long[] stepNanos = new long[generators.size() + 1];
 
-        // Generate Repository interface
-        generateRepository();
+        if (sqlGenerator != null) {
+            List<Runnable> sqlMessages = new ArrayList<>();
+            sqlGenerator.setMessageSink(message -> sqlMessages.add(() -> messageSink.accept(message)));
+            sqlGenerator.setWarningSink(message -> sqlMessages.add(() -> warningSink.accept(message)));
+            sqlGenerator.setMigrationNaming(migrationNaming);
+            sqlGenerator.setDeclarationOrder(fileOrder, entityOrder);
+            sqlGenerator.setMigrationIndex(migrationIndex);
+            sqlGenerator.setOutput(output);
+            messages.add(sqlMessages);
+            steps.add(timed(sqlGenerator::generate, stepNanos, 0));
+        }
 
-        // Generate Service interface and implementation
-        generateService();        // Generate REST Controller
-        generateController();
+        for (int i = 0; i < generators.size(); i++) {
+            BaseGenerator generator = generators.get(i);
+            List<Runnable> generatorMessages = new ArrayList<>();
+            generator.setMessageSink(message -> generatorMessages.add(() -> messageSink.accept(message)));
+            generator.setOverrideBehavior(skipIfExists, forceRegenerate);
+            generator.setOutput(output);
+            messages.add(generatorMessages);
+            steps.add(timed(generator::generate, stepNanos, i + 1));
+        }
+
+        try {
+            runAll(steps);
+        } finally {
+            for (List<Runnable> generatorMessages : messages) {
+                generatorMessages.forEach(Runnable::run);
+            }
+        }
+
+        long writeNanos = 0;
+        if (sqlGenerator != null) {
+            if (sqlGenerator.getMigrationFile() != null) {
+                generatedFiles.add(sqlGenerator.getMigrationFile());
+                if (sqlGenerator.isMigrationFileWritten()) {
+                    writtenFileCount++;
+                } else {
+                    unchangedFileCount++;
+                }
+            }
+            if (sqlGenerator.getSequenceMigrationFile() != null) {
+                generatedFiles.add(sqlGenerator.getSequenceMigrationFile());
+                if (sqlGenerator.isSequenceMigrationFileWritten()) {
+                    writtenFileCount++;
+                } else {
+                    unchangedFileCount++;
+                }
+            }
+            bytesWritten += sqlGenerator.getBytesWritten();
+            writeNanos += sqlGenerator.getWriteNanos();
+            phaseNanos.put("sql", stepNanos[0] - sqlGenerator.getWriteNanos());
+        }
+
+        List<File> sourceFiles = new ArrayList<>();
+        for (int i = 0; i < generators.size(); i++) {
+            BaseGenerator generator = generators.get(i);
+            sourceFiles.addAll(generator.getGeneratedFiles());
+            writtenFileCount += generator.getWrittenFileCount();
+            unchangedFileCount += generator.getUnchangedFileCount();
+            skippedFileCount += generator.getSkippedFileCount();
+            bytesWritten += generator.getBytesWritten();
+            writeNanos += generator.getWriteNanos();
+            phaseNanos.put(phaseName(generator), stepNanos[i + 1] - generator.getWriteNanos());
+        }
+        phaseNanos.put("write", writeNanos);
+        generatedFiles.addAll(sourceFiles);
+
+        // Only complete output sets are cached, not ones with files skipped because they exist
+        if (cacheKey != null && cachedFiles == null && skippedFileCount == 0) {
+            storeInCache(cacheKey, sourceFiles);
+        }
+    }
+
+    /**
+     * Get the number of files written by the last call to {@link #generateAll()}
+     */
+    public int getWrittenFileCount() {
+        return writtenFileCount;
+    }
+
+    /**
+     * Get the number of files left untouched by the last call to {@link #generateAll()}
+     * because their content was unchanged
+     */
+    public int getUnchangedFileCount() {
+        return unchangedFileCount;
+    }
+
+    /**
+     * Get the number of files not generated by the last call to {@link #generateAll()}
+     * because they already exist and skipIfExists is set
+     */
+    public int getSkippedFileCount() {
+        return skippedFileCount;
+    }
+
+    /**
+     * Get the number of bytes written by the last call to {@link #generateAll()}
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Get the time spent in each phase of the last call to {@link #generateAll()}, in nanoseconds:
+     * one phase per generator of the selected layers (sql, entity, repository, service, controller,
+     * or cacheRestore when the sources were restored from the cache), excluding file writes, followed by the time spent
+     * writing files ("write")
+     */
+    public Map<String, Long> getPhaseNanos() {
+        return Collections.unmodifiableMap(phaseNanos);
+    }
+
+    /**
+     * Get all files produced by the last call to {@link #generateAll()}
+     */
+    public List<File> getGeneratedFiles() {
+        return Collections.unmodifiableList(generatedFiles);
     }
 
     private void createPackageDirectories() {
         String packagePath = config.getPackageName().replace('.', File.separatorChar);
-        
+
         // Create main source package directory
         File mainPackageDir = new File(outputDirectory, packagePath);
-        mainPackageDir.mkdirs();
+        output.createDirectories(mainPackageDir);
 
         // Create test source package directory
         File testPackageDir = new File(testOutputDirectory, packagePath);
-        testPackageDir.mkdirs();
+        output.createDirectories(testPackageDir);
     }
 
-    private void generateSqlMigration() throws IOException {
-        SqlMigrationGenerator generator = new SqlMigrationGenerator(config, resourceOutputDirectory);
-        generator.generate();
-    }    private void generateEntity() throws IOException {
-        EntityGenerator generator = new EntityGenerator(config, outputDirectory);
-        generator.setOverrideBehavior(skipIfExists, forceRegenerate);
-        generator.generate();
+    private List<GenerationCache.CachedFile> loadFromCache(String cacheKey) {
+        try {
+            return cache.load(cacheKey);
+        } catch (IOException e) {
+            // The cache only saves time: fall back to generating
+            warningSink.accept("Failed to read generation cache entry " + cacheKey + ": " + e.getMessage());
+            return null;
+        }
     }
 
-    private void generateRepository() throws IOException {
-        RepositoryGenerator generator = new RepositoryGenerator(config, outputDirectory);
-        generator.setOverrideBehavior(skipIfExists, forceRegenerate);
-        generator.generate();
+    private void storeInCache(String cacheKey, List<File> sourceFiles) {
+        try {
+            cache.store(cacheKey, outputDirectory, sourceFiles, output);
+        } catch (IOException e) {
+            warningSink.accept("Failed to store generation cache entry " + cacheKey + ": " + e.getMessage());
+        }
     }
 
-    private void generateService() throws IOException {
-        ServiceGenerator generator = new ServiceGenerator(config, outputDirectory);
-        generator.setOverrideBehavior(skipIfExists, forceRegenerate);
-        generator.generate();
+    private String phaseName(BaseGenerator generator) {
+        String name = generator.getClass().getSimpleName();
+        if (name.endsWith("Generator")) {
+            name = name.substring(0, name.length() - "Generator".length());
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private GenerationStep timed(GenerationStep step, long[] stepNanos, int index) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                step.run();
+            } finally {
+                stepNanos[index] = System.nanoTime() - start;
+            }
+        };
+    }
+
+    private void runAll(List<GenerationStep> steps) throws IOException {
+        if (executor == null) {
+            for (GenerationStep step : steps) {
+                step.run();
+            }
+            return;
+        }
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (GenerationStep step : steps) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                try {
+                    step.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+
+        try {
+            if (ForkJoinTask.inForkJoinPool()) {
+                // Already running inside the pool (e.g. one task per entity): join by work-stealing
+                ForkJoinTask.invokeAll(tasks);
+            } else {
+                executor.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+            }
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+            }
+            throw e;
+        }
     }
 
-    private void generateController() throws IOException {
-        ControllerGenerator generator = new ControllerGenerator(config, outputDirectory);
-        generator.setOverrideBehavior(skipIfExists, forceRegenerate);
-        generator.generate();
+    /**
+     * A part of the generated code that can be selected per entity. A layer needs the layers
+     * its classes refer to: the repository needs the entity, the service the repository and
+     * the controller the service. The SQL migration is independent of the Java layers.
+     */
+    public enum Layer {
+        /** Liquibase migration creating the table */
+        SQL(null),
+        /** JPA entity class */
+        ENTITY(null),
+        /** Spring Data repository interface */
+        REPOSITORY(ENTITY),
+        /** Service interface, base and default implementation */
+        SERVICE(REPOSITORY),
+        /** Base and default REST controller */
+        CONTROLLER(SERVICE);
+
+        private final Layer requiredLayer;
+
+        Layer(Layer requiredLayer) {
+            this.requiredLayer = requiredLayer;
+        }
+
+        /**
+         * Get the name of the layer as used in configuration files, such as "repository"
+         */
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Parse a layer name such as "entity" or "controller"
+         */
+        public static Layer fromString(String value) {
+            try {
+                return valueOf(String.valueOf(value).trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown layer '" + value
+                        + "', expected sql, entity, repository, service or controller", e);
+            }
+        }
+
+        /**
+         * Parse a selection of layers and check that every layer has the layers it needs
+         */
+        public static Set<Layer> parse(Collection<String> values) {
+            if (values.isEmpty()) {
+                throw new IllegalArgumentException("At least one layer must be selected");
+            }
+            Set<Layer> layers = EnumSet.noneOf(Layer.class);
+            for (String value : values) {
+                layers.add(fromString(value));
+            }
+            for (Layer layer : layers) {
+                if (layer.requiredLayer != null && !layers.contains(layer.requiredLayer)) {
+                    throw new IllegalArgumentException("Layer '" + layer.getName() + "' requires layer '"
+                            + layer.requiredLayer.getName() + "'");
+                }
+            }
+            return layers;
+        }
+    }
+
+    /**
+     * A single generator invocation
+     */
+    @FunctionalInterface
+    private interface GenerationStep {
+        void run() throws IOException;
     }
 }
@@ -0,0 +1,78 @@
+package com.luanvv.codegen.spring;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Maven goal that generates code in memory and reports which generated files would be
+ * added or changed, without writing anything to disk.
+ *
+ * The same rules as for the generate goal apply (skipIfExists, forceRegenerate, existing
+ * migration files), so the report shows exactly what running generate would change.
+ */
+@Mojo(name = "diff", threadSafe = true)
+public class CodeGeneratorDiffMojo extends CodeGeneratorMojo {
+
+    /**
+     * Fail the build when generating would add or change files, e.g. to verify in CI that
+     * committed generated code is up to date
+     */
+    @Parameter(property = "failOnDiff", defaultValue = "false")
+    private boolean failOnDiff;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (isSkip()) {
+            getLog().info("Code generation is skipped.");
+            return;
+        }
+
+        InMemoryOutput output = new InMemoryOutput();
+        setGeneratorOutput(output);
+
+        File[] filesToProcess = getConfigFilesToProcess();
+        startReport(Arrays.asList(filesToProcess));
+        try {
+            loadMigrationIndex();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to index migration files", e);
+        }
+
+        for (File configFile : filesToProcess) {
+            LogMessages messages = new LogMessages();
+            try {
+                processConfigFile(configFile, messages, null);
+            } finally {
+                messages.writeTo(getLog(), true);
+            }
+        }
+
+        int added = 0;
+        int changed = 0;
+        for (File file : output.getWrittenFiles().keySet()) {
+            if (file.exists()) {
+                changed++;
+                getLog().info("  changed: " + file.getAbsolutePath());
+            } else {
+                added++;
+                getLog().info("  added:   " + file.getAbsolutePath());
+            }
+        }
+
+        if (added + changed == 0) {
+            getLog().info("Generated code is up to date");
+            return;
+        }
+        String summary = "Generation would add " + added + " and change " + changed + " file(s)";
+        getLog().info(summary);
+        if (failOnDiff) {
+            throw new MojoFailureException(summary + "; run the generate goal to update them");
+        }
+    }
+}
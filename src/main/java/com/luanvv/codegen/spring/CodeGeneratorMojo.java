@@ -1,8 +1,11 @@
 package com.luanvv.codegen.spring;
 
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
@@ -13,18 +16,42 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Maven plugin to generate Spring Boot boilerplate code from YAML configuration
+ * Maven plugin to generate Spring Boot boilerplate code from YAML configuration.
+ *
+ * The mojo is thread-safe for parallel reactor builds: all state is per execution, output goes
+ * through the Maven log and is printed per module in one block, and directories shared between
+ * modules are written by one module at a time.
  */
-@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES)
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES, threadSafe = true)
 public class CodeGeneratorMojo extends AbstractMojo {
 
     /**
      * The Maven project
      */
     @Parameter(defaultValue = "${project}", readonly = true, required = true)
-    private MavenProject project;    /**
+    private MavenProject project;
+
+    /**
+     * The Maven session
+     */
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
+    /**
      * Path to the YAML configuration file (for single file - backward compatibility)
      */
     @Parameter(property = "configFile", defaultValue = "src/main/resources/codegen.yaml")
@@ -68,13 +95,124 @@ public class CodeGeneratorMojo extends AbstractMojo {
      * Force regeneration even if files exist
      */
     @Parameter(property = "forceRegenerate", defaultValue = "false")
-    private boolean forceRegenerate;@Override
+    private boolean forceRegenerate;
+
+    /**
+     * Copy generated resources into src/main/resources. When false, the resource output directory
+     * is registered as a project resource root instead and the source tree is left untouched.
+     */
+    @Parameter(property = "copyResourcesToSourceTree", defaultValue = "true")
+    private boolean copyResourcesToSourceTree;
+
+    /**
+     * How versions of new migration files are chosen when a configuration does not set
+     * migrationVersion: "timestamp" (current time) or "content-hash" (reproducible, derived
+     * from the position of the entity in the configuration and the SQL content). Content-hash
+     * versions follow the order of configFiles and of the entities in each file, so referenced
+     * tables must be declared first and new entities added after the existing ones.
+     */
+    @Parameter(property = "migrationNaming", defaultValue = "timestamp")
+    private String migrationNaming;
+
+    /**
+     * Layers generated for entities whose configuration does not list its own layers:
+     * sql, entity, repository, service, controller. All layers when not set.
+     */
+    @Parameter(property = "layers")
+    private List<String> layers;
+
+    /**
+     * Skip configuration files whose content, plugin version and settings are unchanged
+     * since the last generation, and prune files generated from removed configuration files
+     */
+    @Parameter(property = "incremental", defaultValue = "true")
+    private boolean incremental;
+
+    /**
+     * Directory holding the generator state used between builds (fingerprints, indexes)
+     */
+    @Parameter(property = "stateDirectory", defaultValue = "${project.build.directory}/codegen")
+    private File stateDirectory;
+
+    /**
+     * Number of threads used to generate entities; with more than one thread configuration
+     * files are parsed and generated concurrently, as are the generators of each entity
+     */
+    @Parameter(property = "threads", defaultValue = "1")
+    private int threads;
+
+    /**
+     * Reuse generated sources of identical entity configurations from a cache shared between
+     * modules, checkouts and builds
+     */
+    @Parameter(property = "generationCache", defaultValue = "false")
+    private boolean generationCache;
+
+    /**
+     * Directory of the generation cache
+     */
+    @Parameter(property = "generationCacheDirectory", defaultValue = "${user.home}/.m2/codegen-cache")
+    private File generationCacheDirectory;
+
+    /**
+     * Days after which generation cache entries that no build used are deleted; 0 keeps all entries
+     */
+    @Parameter(property = "generationCacheMaxAgeDays", defaultValue = "30")
+    private int generationCacheMaxAgeDays;
+
+    /**
+     * JSON report with per-entity and per-phase timings, bytes written and skipped files
+     */
+    @Parameter(property = "reportFile", defaultValue = "${project.build.directory}/codegen/codegen-report.json")
+    private File reportFile;
+
+    /**
+     * Version of this plugin, part of the incremental generation fingerprint
+     */
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    private String pluginVersion;
+
+    // One pre-configured parser per thread, reused for every configuration file
+    private final ThreadLocal<YamlConfigParser> parsers = ThreadLocal.withInitial(YamlConfigParser::new);
+    private GenerationFingerprintStore fingerprintStore;
+    private MigrationIndex migrationIndex;
+    private GenerationCache cache;
+    private String cacheSettings;
+    private GeneratorOutput output = FileSystemOutput.INSTANCE;
+    private GenerationReport report;
+    // Outputs recorded for regenerated configuration files, deleted unless generated again
+    private final Set<File> previousOutputs = ConcurrentHashMap.newKeySet();
+    private BufferedLog bufferedLog;
+
+    @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         if (skip) {
             getLog().info("Code generation is skipped.");
             return;
         }
 
+        // In a parallel build, print the output of this module as one block once it is done
+        if (session != null && session.isParallel()) {
+            bufferedLog = new BufferedLog(super.getLog());
+        }
+        try {
+            DirectoryLocks.withLocks(getSharedDirectories(), this::generate);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to lock output directories", e);
+        } finally {
+            if (bufferedLog != null) {
+                bufferedLog.flush();
+                bufferedLog = null;
+            }
+        }
+    }
+
+    @Override
+    public Log getLog() {
+        return bufferedLog != null ? bufferedLog : super.getLog();
+    }
+
+    private void generate() throws MojoExecutionException {
         getLog().info("Starting Spring Boot code generation...");
         
         try {
@@ -86,20 +224,41 @@ public class CodeGeneratorMojo extends AbstractMojo {
             getLog().info("Test output directory: " + testOutputDirectory.getAbsolutePath());
             getLog().info("Resource output directory: " + resourceOutputDirectory.getAbsolutePath());
 
+            startReport(Arrays.asList(filesToProcess));
+
             // Create output directories
             createDirectories();
 
+            loadFingerprints();
+            loadMigrationIndex();
+            cache = generationCache ? openGenerationCache() : null;
+
             // Process each configuration file
-            for (File configFile : filesToProcess) {
-                processConfigFile(configFile);
+            List<File> currentOutputs = new ArrayList<>();
+            if (threads > 1) {
+                currentOutputs.addAll(processConfigFilesInParallel(filesToProcess));
+            } else {
+                for (File configFile : filesToProcess) {
+                    LogMessages messages = new LogMessages();
+                    try {
+                        currentOutputs.addAll(processConfigFile(configFile, messages, null));
+                    } finally {
+                        messages.writeTo(getLog());
+                    }
+                }
             }
 
+            pruneRemovedConfigurations(filesToProcess, currentOutputs);
+            saveGeneratorState();
+            pruneGenerationCache();
+
             // Add generated sources to Maven project
             addGeneratedSourcesToProject();
             
-            // Copy generated resources to standard Maven directories
+            // Copy generated resources to standard Maven directories (or register them as a resource root)
             copyGeneratedResources();
 
+            finishReport();
             getLog().info("Code generation completed successfully!");
 
         } catch (Exception e) {
@@ -107,6 +266,19 @@ public class CodeGeneratorMojo extends AbstractMojo {
         }
     }
 
+    /**
+     * Directories written by this execution that may be shared with other modules
+     */
+    protected List<File> getSharedDirectories() {
+        List<File> directories = new ArrayList<>(Arrays.asList(
+                outputDirectory, testOutputDirectory, resourceOutputDirectory, stateDirectory,
+                reportFile.getParentFile()));
+        if (copyResourcesToSourceTree) {
+            directories.add(new File(project.getBasedir(), "src/main/resources"));
+        }
+        return directories;
+    }
+
     private void createDirectories() throws MojoExecutionException {
         try {
             if (!outputDirectory.exists() && !outputDirectory.mkdirs()) {
@@ -122,7 +294,14 @@ public class CodeGeneratorMojo extends AbstractMojo {
         }
     }
 
-    private File[] getConfigFilesToProcess() throws MojoExecutionException {
+    /**
+     * Get the configured files without checking that they exist
+     */
+    protected File[] getConfiguredFiles() {
+        return configFiles != null && configFiles.length > 0 ? configFiles : new File[]{configFile};
+    }
+
+    protected File[] getConfigFilesToProcess() throws MojoExecutionException {
         // If configFiles array is specified, use it
         if (configFiles != null && configFiles.length > 0) {
             // Validate all config files exist
@@ -141,43 +320,276 @@ public class CodeGeneratorMojo extends AbstractMojo {
         return new File[]{configFile};
     }
 
-    private void processConfigFile(File configFile) throws MojoExecutionException {
-        getLog().info("Processing configuration file: " + configFile.getAbsolutePath());
+    /**
+     * Process all configuration files concurrently. Messages of each file are buffered and
+     * reported in configuration order once the file is done, so the log is deterministic.
+     */
+    private List<File> processConfigFilesInParallel(File[] filesToProcess) throws MojoExecutionException {
+        getLog().info("Generating with " + threads + " threads");
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<LogMessages> messages = new ArrayList<>();
+            List<ForkJoinTask<List<File>>> tasks = new ArrayList<>();
+            for (File configFile : filesToProcess) {
+                LogMessages fileMessages = new LogMessages();
+                messages.add(fileMessages);
+                tasks.add(pool.submit(() -> processConfigFile(configFile, fileMessages, pool)));
+            }
+
+            List<File> outputs = new ArrayList<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                try {
+                    outputs.addAll(tasks.get(i).get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof MojoExecutionException) {
+                        throw (MojoExecutionException) e.getCause();
+                    }
+                    throw new MojoExecutionException("Failed to process config file: " + filesToProcess[i], e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MojoExecutionException("Code generation was interrupted", e);
+                } finally {
+                    messages.get(i).writeTo(getLog());
+                }
+            }
+            return outputs;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    protected List<File> processConfigFile(File configFile, LogMessages messages, ForkJoinPool pool)
+            throws MojoExecutionException {
+        messages.info("Processing configuration file: " + configFile.getAbsolutePath());
+        GenerationReport.ConfigFileReport fileReport = report.getConfigFile(configFile);
         
         try {
-            // Parse YAML configuration
-            CodeGenConfig config = parseConfiguration(configFile);
-            
-            // Generate code
-            generateCode(config);
-            
-            getLog().info("Generated code for entity: " + config.getEntityName());
+            String fingerprint = null;
+            if (fingerprintStore != null) {
+                fingerprint = GenerationFingerprintStore.fingerprint(configFile, getSettingsFingerprint());
+                if (!forceRegenerate && fingerprintStore.isUpToDate(configFile, fingerprint)) {
+                    messages.info("Configuration unchanged, skipping generation: " + configFile.getName());
+                    fileReport.setUnchanged(true);
+                    return fingerprintStore.getOutputs(configFile);
+                }
+            }
+
+            // Parse YAML configuration and generate code for each entity as soon as it is read
+            List<File> outputs = new ArrayList<>();
+            int fileOrder = getFileOrder(configFile);
+            int[] entityOrder = {0};
+            parseConfiguration(configFile, (config, timings) -> {
+                GenerationReport.EntityReport entityReport = fileReport.addEntity(config.getEntityName());
+                entityReport.addParseTimings(timings);
+                // Resolve the entity once; all its generators share the model
+                long start = System.nanoTime();
+                EntityModel model = new EntityModel(config);
+                entityReport.addPhase("resolve", System.nanoTime() - start);
+                outputs.addAll(generateCode(model, fileOrder, ++entityOrder[0], messages, pool, entityReport));
+            });
+
+            if (fingerprintStore != null) {
+                previousOutputs.addAll(fingerprintStore.getOutputs(configFile));
+                fingerprintStore.put(configFile, fingerprint, outputs);
+            }
+            return outputs;
             
         } catch (Exception e) {
             throw new MojoExecutionException("Failed to process config file: " + configFile.getAbsolutePath(), e);
         }
     }
 
-    private CodeGenConfig parseConfiguration(File configFile) throws MojoExecutionException {
+    private void parseConfiguration(File configFile,
+            YamlConfigParser.TimedConfigHandler<MojoExecutionException> handler)
+            throws MojoExecutionException {
         try {
-            YamlConfigParser parser = new YamlConfigParser();
-            return parser.parse(configFile);
+            parsers.get().parseWithTimings(configFile, handler);
+        } catch (MojoExecutionException e) {
+            throw e;
         } catch (Exception e) {
             throw new MojoExecutionException("Failed to parse configuration file: " + configFile, e);
         }
-    }    private void generateCode(CodeGenConfig config) throws MojoExecutionException {
+    }
+
+    /**
+     * Get the position of a configuration file among the configured files, starting at 1
+     */
+    private int getFileOrder(File configFile) {
+        File[] files = getConfiguredFiles();
+        for (int i = 0; i < files.length; i++) {
+            if (files[i].getAbsoluteFile().equals(configFile.getAbsoluteFile())) {
+                return i + 1;
+            }
+        }
+        return files.length + 1;
+    }
+
+    private List<File> generateCode(EntityModel model, int fileOrder, int entityOrder, LogMessages messages,
+            ForkJoinPool pool, GenerationReport.EntityReport entityReport) throws MojoExecutionException {
         try {
-            CodeGenerator generator = new CodeGenerator(config, outputDirectory, testOutputDirectory, resourceOutputDirectory);
+            CodeGenerator generator = new CodeGenerator(model, outputDirectory, testOutputDirectory, resourceOutputDirectory);
             
             // Set override behavior
             generator.setOverrideBehavior(skipIfExists, forceRegenerate);
+            generator.setExecutor(pool);
+            generator.setMigrationIndex(migrationIndex);
+            generator.setMigrationNaming(SqlMigrationGenerator.MigrationNaming.fromString(migrationNaming));
+            generator.setDeclarationOrder(fileOrder, entityOrder);
+            generator.setDefaultLayers(getDefaultLayers());
+            generator.setMessageSink(messages::info);
+            generator.setWarningSink(messages::warn);
+            generator.setOutput(output);
+            if (cache != null) {
+                generator.setCache(cache, cacheSettings);
+            }
             
             generator.generateAll();
-            getLog().info("Generated code for entity: " + config.getEntityName());
+            entityReport.addGeneration(generator);
+            messages.info("Generated code for entity: " + model.getEntityName());
+            return generator.getGeneratedFiles();
         } catch (Exception e) {
             throw new MojoExecutionException("Failed to generate code", e);
         }
-    }private void addGeneratedSourcesToProject() {
+    }
+
+    private void loadFingerprints() throws IOException {
+        if (!incremental) {
+            fingerprintStore = null;
+            return;
+        }
+        fingerprintStore = new GenerationFingerprintStore(new File(stateDirectory, "fingerprints.properties"));
+        fingerprintStore.load();
+    }
+
+    protected void loadMigrationIndex() throws IOException {
+        migrationIndex = new MigrationIndex(SqlMigrationGenerator.getMigrationDirectory(resourceOutputDirectory),
+                new File(stateDirectory, "migration-index.properties"), output);
+        migrationIndex.load();
+    }
+
+    /**
+     * Set where generated files are written (defaults to the file system)
+     */
+    protected void setGeneratorOutput(GeneratorOutput output) {
+        this.output = output;
+    }
+
+    /**
+     * Start recording timings for the given configuration files
+     */
+    protected void startReport(List<File> configFiles) {
+        report = new GenerationReport(configFiles);
+    }
+
+    /**
+     * Log the summary of the current report and write it as JSON
+     */
+    protected void finishReport() throws IOException {
+        report.finish();
+        report.getSummary().forEach(getLog()::info);
+        report.write(reportFile);
+        getLog().info("Generation report written to: " + reportFile.getAbsolutePath());
+    }
+
+    protected void saveGeneratorState() throws IOException {
+        if (fingerprintStore != null) {
+            fingerprintStore.save();
+        }
+        if (migrationIndex != null) {
+            migrationIndex.save();
+        }
+    }
+
+    /**
+     * Settings that influence the generated output; a change invalidates all fingerprints
+     */
+    private String getSettingsFingerprint() {
+        return String.join("|",
+                String.valueOf(pluginVersion),
+                outputDirectory.getAbsolutePath(),
+                testOutputDirectory.getAbsolutePath(),
+                resourceOutputDirectory.getAbsolutePath(),
+                String.valueOf(skipIfExists),
+                migrationNaming,
+                String.valueOf(getDefaultLayers()));
+    }
+
+    /**
+     * Get the layers generated for entities that do not list their own
+     */
+    private Set<CodeGenerator.Layer> getDefaultLayers() {
+        if (layers == null || layers.isEmpty()) {
+            return EnumSet.allOf(CodeGenerator.Layer.class);
+        }
+        return CodeGenerator.Layer.parse(layers);
+    }
+
+    /**
+     * Open the generation cache. The settings that are part of every cache key are the plugin
+     * version and a hash of the plugin classes, so rebuilt -SNAPSHOT versions miss old entries.
+     * Output locations are not included since cache entries hold paths relative to them.
+     */
+    private GenerationCache openGenerationCache() {
+        try {
+            cacheSettings = pluginVersion + "|" + GenerationCache.pluginFingerprint();
+        } catch (IOException e) {
+            getLog().warn("Generation cache disabled: " + e.getMessage());
+            return null;
+        }
+        return new GenerationCache(generationCacheDirectory);
+    }
+
+    private void pruneGenerationCache() {
+        if (cache == null || generationCacheMaxAgeDays <= 0) {
+            return;
+        }
+        try {
+            int pruned = cache.prune(Duration.ofDays(generationCacheMaxAgeDays));
+            if (pruned > 0) {
+                getLog().info("Deleted " + pruned + " generation cache entries unused for "
+                        + generationCacheMaxAgeDays + " days");
+            }
+        } catch (IOException e) {
+            // The cache only saves time: a failed cleanup is retried by the next build
+            getLog().warn("Failed to prune generation cache " + generationCacheDirectory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Delete generated files of configuration files that are no longer processed, and files
+     * no longer generated from changed ones (e.g. of layers that were deselected)
+     *
+     * @param filesToProcess the configuration files still present
+     * @param currentOutputs the files generated by this run
+     */
+    protected void pruneRemovedConfigurations(File[] filesToProcess, List<File> currentOutputs) {
+        if (fingerprintStore == null) {
+            return;
+        }
+        Set<File> orphanedOutputs = fingerprintStore.removeAllExcept(Arrays.asList(filesToProcess));
+        orphanedOutputs.addAll(previousOutputs);
+        previousOutputs.clear();
+        orphanedOutputs.removeAll(currentOutputs);
+        // Files of configurations not processed in this run (e.g. by the watch goal) are still current
+        for (File configFile : filesToProcess) {
+            orphanedOutputs.removeAll(fingerprintStore.getOutputs(configFile));
+        }
+        for (File output : orphanedOutputs) {
+            // Only delete inside the generated directories, never in the source tree
+            if (isInside(output, outputDirectory) || isInside(output, resourceOutputDirectory)) {
+                if (output.delete()) {
+                    getLog().info("Pruned stale generated file: " + output.getAbsolutePath());
+                }
+            }
+        }
+    }
+
+    private boolean isInside(File file, File directory) {
+        return file.getAbsoluteFile().toPath().normalize()
+                .startsWith(directory.getAbsoluteFile().toPath().normalize());
+    }
+
+    private void addGeneratedSourcesToProject() {
         // Add generated sources to Maven project so they're compiled
         project.addCompileSourceRoot(outputDirectory.getAbsolutePath());
         project.addTestCompileSourceRoot(testOutputDirectory.getAbsolutePath());
@@ -186,7 +598,13 @@ public class CodeGeneratorMojo extends AbstractMojo {
         getLog().info("Added test compile source root: " + testOutputDirectory.getAbsolutePath());
     }
 
-    private void copyGeneratedResources() throws MojoExecutionException {
+    protected void copyGeneratedResources() throws MojoExecutionException {
+        if (!copyResourcesToSourceTree) {
+            addGeneratedResourcesToProject();
+            return;
+        }
+
+        long start = System.nanoTime();
         try {
             // Standard Maven resource directory
             File standardResourceDir = new File(project.getBasedir(), "src/main/resources");
@@ -196,31 +614,66 @@ public class CodeGeneratorMojo extends AbstractMojo {
                 standardResourceDir.mkdirs();
             }
             
-            // Copy all files from generated-resources to src/main/resources
+            // Copy new and changed files from generated-resources to src/main/resources
             if (resourceOutputDirectory.exists()) {
-                copyDirectoryContents(resourceOutputDirectory.toPath(), standardResourceDir.toPath());
-                getLog().info("Copied generated resources to: " + standardResourceDir.getAbsolutePath());
+                int[] counts = copyDirectoryContents(resourceOutputDirectory.toPath(), standardResourceDir.toPath());
+                getLog().info("Copied generated resources to: " + standardResourceDir.getAbsolutePath()
+                        + " (" + counts[0] + " copied, " + counts[1] + " unchanged)");
             }
         } catch (IOException e) {
             throw new MojoExecutionException("Failed to copy generated resources", e);
+        } finally {
+            report.addPhase("resourceCopy", System.nanoTime() - start);
         }
     }
 
-    private void copyDirectoryContents(Path source, Path target) throws IOException {
-        Files.walk(source)
-            .forEach(sourcePath -> {
-                try {
-                    Path targetPath = target.resolve(source.relativize(sourcePath));
-                    if (Files.isDirectory(sourcePath)) {
-                        Files.createDirectories(targetPath);
-                    } else {
-                        Files.createDirectories(targetPath.getParent());
-                        Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
-                    }
-                } catch (IOException e) {
-                    throw new RuntimeException("Failed to copy: " + sourcePath, e);
-                }
-            });
+    /**
+     * Register the generated resource directory as a project resource root instead of
+     * copying its content into the source tree
+     */
+    private void addGeneratedResourcesToProject() {
+        String directory = resourceOutputDirectory.getAbsolutePath();
+        for (Resource existing : project.getResources()) {
+            if (directory.equals(existing.getDirectory())) {
+                return;
+            }
+        }
+        Resource resource = new Resource();
+        resource.setDirectory(directory);
+        project.addResource(resource);
+        getLog().info("Added resource root: " + directory);
+    }
+
+    /**
+     * Copy the files of a directory tree, skipping files whose target already has the same content
+     *
+     * @return the number of copied and unchanged files
+     */
+    private int[] copyDirectoryContents(Path source, Path target) throws IOException {
+        int copied = 0;
+        int unchanged = 0;
+        List<Path> sourceFiles;
+        try (Stream<Path> paths = Files.walk(source)) {
+            sourceFiles = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path sourcePath : sourceFiles) {
+            Path targetPath = target.resolve(source.relativize(sourcePath));
+            if (isSameContent(sourcePath, targetPath)) {
+                unchanged++;
+                continue;
+            }
+            Files.createDirectories(targetPath.getParent());
+            Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            copied++;
+        }
+        return new int[]{copied, unchanged};
+    }
+
+    private boolean isSameContent(Path sourcePath, Path targetPath) throws IOException {
+        // Compare sizes first so that changed files are usually detected without reading them
+        return Files.isRegularFile(targetPath)
+                && Files.size(sourcePath) == Files.size(targetPath)
+                && Files.mismatch(sourcePath, targetPath) == -1;
     }
 
     // Getters for testing
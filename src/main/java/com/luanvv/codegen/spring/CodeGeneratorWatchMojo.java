@@ -0,0 +1,164 @@
+package com.luanvv.codegen.spring;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maven goal that generates code once and then watches the configuration files,
+ * regenerating only the entity whose YAML file changed. Like the generate goal, it prunes
+ * the files no longer generated, e.g. of deleted YAML files, renamed entities or
+ * deselected layers.
+ *
+ * The goal keeps running in the same JVM until it is interrupted (Ctrl+C), so each
+ * regeneration avoids Maven startup and runs with loaded classes and warm JIT.
+ */
+@Mojo(name = "watch", threadSafe = true)
+public class CodeGeneratorWatchMojo extends CodeGeneratorMojo {
+
+    /**
+     * Time to wait after a change before regenerating, so that editors saving a file
+     * in several steps trigger a single regeneration
+     */
+    @Parameter(property = "watchDebounceMillis", defaultValue = "200")
+    private long watchDebounceMillis;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        // Initial full generation
+        super.execute();
+        if (isSkip()) {
+            return;
+        }
+
+        Map<Path, File> watchedFiles = new LinkedHashMap<>();
+        for (File file : getConfiguredFiles()) {
+            watchedFiles.put(file.getAbsoluteFile().toPath().normalize(), file);
+        }
+
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            Set<Path> directories = new HashSet<>();
+            for (Path path : watchedFiles.keySet()) {
+                if (directories.add(path.getParent())) {
+                    path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                }
+            }
+
+            getLog().info("Watching " + watchedFiles.size() + " configuration file(s) for changes. "
+                    + "Press Ctrl+C to stop.");
+            watch(watchService, watchedFiles);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to watch configuration files", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            getLog().info("Stopped watching configuration files");
+        }
+    }
+
+    private void watch(WatchService watchService, Map<Path, File> watchedFiles) throws InterruptedException {
+        while (true) {
+            WatchKey key = watchService.take();
+
+            // Collect all changes that arrive within the debounce window
+            Thread.sleep(watchDebounceMillis);
+            Set<File> changedFiles = new LinkedHashSet<>();
+            while (key != null) {
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        changedFiles.addAll(watchedFiles.values());
+                        continue;
+                    }
+                    Path changed = directory.resolve((Path) event.context()).normalize();
+                    File configFile = watchedFiles.get(changed);
+                    if (configFile != null) {
+                        changedFiles.add(configFile);
+                    }
+                }
+                key.reset();
+                key = watchService.poll();
+            }
+
+            if (!changedFiles.isEmpty()) {
+                regenerate(changedFiles, watchedFiles.values());
+            }
+        }
+    }
+
+    private void regenerate(Set<File> changedFiles, Collection<File> watchedFiles) {
+        // Only hold the directory locks while regenerating, not while waiting for changes
+        try {
+            DirectoryLocks.withLocks(getSharedDirectories(), () -> regenerateLocked(changedFiles, watchedFiles));
+        } catch (IOException e) {
+            getLog().error("Failed to lock output directories: " + rootMessage(e));
+        }
+    }
+
+    private void regenerateLocked(Set<File> changedFiles, Collection<File> watchedFiles) {
+        long start = System.nanoTime();
+        List<File> existingFiles = new ArrayList<>();
+        for (File file : watchedFiles) {
+            if (file.exists()) {
+                existingFiles.add(file);
+            }
+        }
+        startReport(new ArrayList<>(changedFiles));
+        List<File> currentOutputs = new ArrayList<>();
+        for (File configFile : changedFiles) {
+            if (!configFile.exists()) {
+                getLog().info("Configuration file removed: " + configFile.getName());
+                continue;
+            }
+            LogMessages messages = new LogMessages();
+            try {
+                currentOutputs.addAll(processConfigFile(configFile, messages, null));
+            } catch (MojoExecutionException e) {
+                // Keep watching: the next save usually fixes the configuration
+                messages.writeTo(getLog());
+                getLog().error("Regeneration failed for " + configFile.getName() + ": " + rootMessage(e));
+                continue;
+            }
+            messages.writeTo(getLog());
+        }
+
+        // Outputs of removed files, and of entities or layers no longer in changed files
+        pruneRemovedConfigurations(existingFiles.toArray(new File[0]), currentOutputs);
+        try {
+            saveGeneratorState();
+            copyGeneratedResources();
+            finishReport();
+        } catch (IOException | MojoExecutionException e) {
+            getLog().error("Failed to update generator state: " + rootMessage(e));
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        getLog().info("Regenerated " + changedFiles.size() + " configuration file(s) in " + elapsedMillis + " ms");
+    }
+
+    private String rootMessage(Throwable throwable) {
+        Throwable root = throwable;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -4,16 +4,30 @@ import com.squareup.javapoet.*;
 import javax.lang.model.element.Modifier;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Generator for REST Controller classes
  */
 public class ControllerGenerator extends BaseGenerator {
 
+    private static final ClassName PAGEABLE = ClassName.get("org.springframework.data.domain", "Pageable");
+    private static final ClassName HTTP_STATUS = ClassName.get("org.springframework.http", "HttpStatus");
+    private static final ClassName MEDIA_TYPE = ClassName.get("org.springframework.http", "MediaType");
+    private static final ClassName OBJECT_MAPPER = ClassName.get("com.fasterxml.jackson.databind", "ObjectMapper");
+    private static final ClassName RESPONSE_STATUS_EXCEPTION =
+            ClassName.get("org.springframework.web.server", "ResponseStatusException");
+
     public ControllerGenerator(CodeGenConfig config, File outputDirectory) {
         super(config, outputDirectory);
+    }
+
+    public ControllerGenerator(EntityModel model, File outputDirectory) {
+        super(model, outputDirectory);
     }    @Override
     public void generate() throws IOException {
         createPackageDirectory();
@@ -23,13 +37,13 @@ public class ControllerGenerator extends BaseGenerator {
     }
 
     private void generateBaseController() throws IOException {
-        String baseControllerName = "Base" + config.getEntityName() + "Controller";
-        String serviceName = config.getEntityName() + "Service";
-        String baseControllerPackage = config.getPackageName() + ".controller.base";
+        String baseControllerName = model.getBaseControllerClass().simpleName();
+        String serviceName = model.getServiceClass().simpleName();
+        String baseControllerPackage = model.getBaseControllerClass().packageName();
         
-        ClassName entityClass = ClassName.get(config.getPackageName() + ".entity", config.getEntityName());
-        ClassName serviceClass = ClassName.get(config.getPackageName() + ".service", serviceName);
-        TypeName idType = getIdType();
+        ClassName entityClass = model.getEntityClass();
+        ClassName serviceClass = model.getServiceClass();
+        TypeName idType = model.getIdType();
 
         // Create the base controller class (abstract)
         TypeSpec.Builder baseControllerBuilder = TypeSpec.classBuilder(baseControllerName)
@@ -48,34 +62,60 @@ public class ControllerGenerator extends BaseGenerator {
                 .addStatement("this.$N = $N", uncapitalize(serviceName), uncapitalize(serviceName))
                 .build());
 
+        if (model.isPaginated()) {
+            addPaginationSupport(baseControllerBuilder);
+        }
+        if (model.isKeysetPaginated()) {
+            baseControllerBuilder.addField(FieldSpec.builder(int.class, "MAX_KEYSET_LIMIT",
+                            Modifier.PROTECTED, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", config.getKeysetPagination().getMaxLimit())
+                    .build());
+        }
+        if (model.isExported()) {
+            addExportSupport(baseControllerBuilder);
+        }
+        if (model.isBatched()) {
+            baseControllerBuilder.addField(FieldSpec.builder(int.class, "MAX_BATCH_ITEMS",
+                            Modifier.PROTECTED, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", config.getBatch().getMaxItems())
+                    .build());
+            baseControllerBuilder.addMethod(MethodSpec.methodBuilder("checkBatchSize")
+                    .addModifiers(Modifier.PROTECTED)
+                    .addJavadoc("Reject batches of more than MAX_BATCH_ITEMS entities\n")
+                    .addParameter(ParameterizedTypeName.get(ClassName.get(List.class), WildcardTypeName.subtypeOf(Object.class)), "items")
+                    .beginControlFlow("if (items.size() > MAX_BATCH_ITEMS)")
+                    .addStatement("throw new $T($T.BAD_REQUEST, \"At most \" + MAX_BATCH_ITEMS + \" items per batch\")",
+                            RESPONSE_STATUS_EXCEPTION, HTTP_STATUS)
+                    .endControlFlow()
+                    .build());
+        }
+
         // Add CRUD endpoints
         addCrudEndpoints(baseControllerBuilder, entityClass, idType, serviceName);
 
         // Create base package directory
         String basePackagePath = config.getPackageName().replace('.', File.separatorChar) + File.separatorChar + "controller" + File.separatorChar + "base";
         File basePackageDir = new File(outputDirectory, basePackagePath);
-        if (!basePackageDir.exists()) {
-            basePackageDir.mkdirs();
-        }
+        output.createDirectories(basePackageDir);
 
         // Build the Java file
         JavaFile javaFile = JavaFile.builder(baseControllerPackage, baseControllerBuilder.build())
                 .build();
 
         // Write to file (always regenerate base classes)
-        javaFile.writeTo(outputDirectory);
+        writeJavaFile(javaFile);
         
-        System.out.println("Generated Base Controller class: " + baseControllerName);
+        log("Generated Base Controller class: " + baseControllerName);
     }
 
     private void generateExtensibleController() throws IOException {
-        String controllerName = config.getEntityName() + "Controller";
-        String baseControllerName = "Base" + config.getEntityName() + "Controller";
-        String serviceName = config.getEntityName() + "Service";
-        String controllerPackage = config.getPackageName() + ".controller";
+        String controllerName = model.getControllerClass().simpleName();
+        String baseControllerName = model.getBaseControllerClass().simpleName();
+        String serviceName = model.getServiceClass().simpleName();
+        String controllerPackage = model.getControllerClass().packageName();
         
-        ClassName baseControllerClass = ClassName.get(config.getPackageName() + ".controller.base", baseControllerName);
-        ClassName serviceClass = ClassName.get(config.getPackageName() + ".service", serviceName);
+        ClassName baseControllerClass = model.getBaseControllerClass();
+        ClassName serviceClass = model.getServiceClass();
 
         // Check if we should skip generation of the extensible controller
         File targetFile = getTargetFile(controllerName, "controller");
@@ -139,21 +179,42 @@ public class ControllerGenerator extends BaseGenerator {
                 .build();
 
         // Write to file
-        javaFile.writeTo(outputDirectory);
+        writeJavaFile(javaFile);
         
-        System.out.println("Generated Controller class: " + controllerName);    }
+        log("Generated Controller class: " + controllerName);    }
 
     private void addCrudEndpoints(TypeSpec.Builder controllerBuilder, ClassName entityClass, TypeName idType, String serviceName) {
         String entityVar = uncapitalize(config.getEntityName());
         String serviceVar = uncapitalize(serviceName);
 
-        // GET /api/entities - Get all entities
-        controllerBuilder.addMethod(MethodSpec.methodBuilder("getAll" + config.getEntityName() + "s")
-                .addModifiers(Modifier.PUBLIC)
-                .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
-                .returns(ParameterizedTypeName.get(ClassName.get(List.class), entityClass))
-                .addStatement("return $N.findAll()", serviceVar)
-                .build());        // GET /api/entities/{id} - Get entity by id
+        // GET /api/entities - Get all entities, or one page of them
+        if (model.isPaginated()) {
+            controllerBuilder.addMethod(buildGetPageMethod(entityClass, serviceVar));
+        } else {
+            controllerBuilder.addMethod(MethodSpec.methodBuilder("getAll" + config.getEntityName() + "s")
+                    .addModifiers(Modifier.PUBLIC)
+                    .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                    .returns(ParameterizedTypeName.get(ClassName.get(List.class), entityClass))
+                    .addStatement("return $N.findAll()", serviceVar)
+                    .build());
+        }
+
+        // GET /api/entities/keyset?after=<cursor>&limit=50 - Get the page after a cursor
+        if (model.isKeysetPaginated()) {
+            controllerBuilder.addMethod(buildGetKeysetPageMethod(serviceVar));
+        }
+
+        // GET /api/entities/export - Stream all entities as newline-delimited JSON
+        if (model.isExported()) {
+            controllerBuilder.addMethod(buildExportMethod(serviceVar));
+        }
+
+        // GET /api/entities/views/{view} and /api/entities/{id}/views/{view} - Read only the columns of a view
+        for (EntityModel.ViewModel view : model.getViews()) {
+            addViewEndpoints(controllerBuilder, view, idType, serviceVar);
+        }
+
+        // GET /api/entities/{id} - Get entity by id
         controllerBuilder.addMethod(MethodSpec.methodBuilder("get" + config.getEntityName() + "ById")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
@@ -200,7 +261,34 @@ public class ControllerGenerator extends BaseGenerator {
                 .nextControlFlow("catch ($T e)", RuntimeException.class)
                 .addStatement("return $T.notFound().build()", ClassName.get("org.springframework.http", "ResponseEntity"))
                 .endControlFlow()
-                .build());        // DELETE /api/entities/{id} - Delete entity
+                .build());
+
+        // PATCH /api/entities/{id} - Update only the fields in the request body, not for composite ids
+        if (!model.hasCompositeId()) {
+            controllerBuilder.addMethod(MethodSpec.methodBuilder("patch" + config.getEntityName())
+                    .addModifiers(Modifier.PUBLIC)
+                    .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PatchMapping"))
+                            .addMember("value", "$S", "/{id}")
+                            .build())
+                    .returns(ParameterizedTypeName.get(ClassName.get("org.springframework.http", "ResponseEntity"), WildcardTypeName.subtypeOf(Object.class)))
+                    .addParameter(ParameterSpec.builder(idType, "id")
+                            .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "PathVariable"))
+                            .build())
+                    .addParameter(ParameterSpec.builder(ParameterizedTypeName.get(Map.class, String.class, Object.class), "changes")
+                            .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RequestBody"))
+                            .build())
+                    .beginControlFlow("try")
+                    .addStatement("int updated = $N.patch(id, changes)", serviceVar)
+                    .addStatement("return updated > 0 ? $T.noContent().build() : $T.notFound().build()",
+                            ClassName.get("org.springframework.http", "ResponseEntity"),
+                            ClassName.get("org.springframework.http", "ResponseEntity"))
+                    .nextControlFlow("catch ($T e)", IllegalArgumentException.class)
+                    .addStatement("throw new $T($T.BAD_REQUEST, e.getMessage())", RESPONSE_STATUS_EXCEPTION, HTTP_STATUS)
+                    .endControlFlow()
+                    .build());
+        }
+
+        // DELETE /api/entities/{id} - Delete entity
         controllerBuilder.addMethod(MethodSpec.methodBuilder("delete" + config.getEntityName())
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "DeleteMapping"))
@@ -210,36 +298,281 @@ public class ControllerGenerator extends BaseGenerator {
                 .addParameter(ParameterSpec.builder(idType, "id")
                         .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "PathVariable"))
                         .build())
+                .addStatement("int deleted = $N.deleteById(id)", serviceVar)
+                .addStatement("return deleted > 0 ? $T.noContent().build() : $T.notFound().build()",
+                        ClassName.get("org.springframework.http", "ResponseEntity"),
+                        ClassName.get("org.springframework.http", "ResponseEntity"))
+                .build());
+
+        // POST, PUT and DELETE /api/entities/batch - Write many entities per request
+        if (model.isBatched()) {
+            addBatchEndpoints(controllerBuilder, entityClass, idType, serviceVar);
+        }
+    }
+
+    /**
+     * Batch endpoints taking a JSON array of entities, or of ids for DELETE
+     */
+    private void addBatchEndpoints(TypeSpec.Builder controllerBuilder, ClassName entityClass, TypeName idType,
+                                   String serviceVar) {
+        ClassName responseEntity = ClassName.get("org.springframework.http", "ResponseEntity");
+        ClassName requestBody = ClassName.get("org.springframework.web.bind.annotation", "RequestBody");
+        ClassName valid = ClassName.get("jakarta.validation", "Valid");
+        TypeName entityList = ParameterizedTypeName.get(ClassName.get(List.class), entityClass);
+        String entityName = config.getEntityName();
+
+        controllerBuilder.addMethod(MethodSpec.methodBuilder("create" + entityName + "s")
+                .addModifiers(Modifier.PUBLIC)
+                .addJavadoc("Create entities in chunks of one transaction each. When a chunk fails, the chunks before it\n")
+                .addJavadoc("stay committed.\n")
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PostMapping"))
+                        .addMember("value", "$S", "/batch")
+                        .build())
+                .returns(ParameterizedTypeName.get(responseEntity, entityList))
+                .addParameter(ParameterSpec.builder(entityList, "entities")
+                        .addAnnotation(requestBody)
+                        .addAnnotation(valid)
+                        .build())
+                .addStatement("checkBatchSize(entities)")
+                .addStatement("return $T.status($T.CREATED).body($N.createAll(entities))", responseEntity, HTTP_STATUS, serviceVar)
+                .build());
+
+        controllerBuilder.addMethod(MethodSpec.methodBuilder("update" + entityName + "s")
+                .addModifiers(Modifier.PUBLIC)
+                .addJavadoc("Update entities in chunks of one transaction each. When a chunk fails, the chunks before it\n")
+                .addJavadoc("stay committed; a missing entity is reported as 404 with the number of committed entities.\n")
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PutMapping"))
+                        .addMember("value", "$S", "/batch")
+                        .build())
+                .returns(ParameterizedTypeName.get(responseEntity, entityList))
+                .addParameter(ParameterSpec.builder(entityList, "entities")
+                        .addAnnotation(requestBody)
+                        .addAnnotation(valid)
+                        .build())
+                .addStatement("checkBatchSize(entities)")
                 .beginControlFlow("try")
-                .addStatement("$N.deleteById(id)", serviceVar)
-                .addStatement("return $T.noContent().build()", ClassName.get("org.springframework.http", "ResponseEntity"))
-                .nextControlFlow("catch ($T e)", RuntimeException.class)
-                .addStatement("return $T.notFound().build()", ClassName.get("org.springframework.http", "ResponseEntity"))
+                .addStatement("return $T.ok($N.updateAll(entities))", responseEntity, serviceVar)
+                .nextControlFlow("catch ($T e)", model.getServiceClass().nestedClass("NotFoundException"))
+                .addStatement("throw new $T($T.NOT_FOUND, e.getMessage(), e)", RESPONSE_STATUS_EXCEPTION, HTTP_STATUS)
+                .endControlFlow()
+                .build());
+
+        controllerBuilder.addMethod(MethodSpec.methodBuilder("delete" + entityName + "s")
+                .addModifiers(Modifier.PUBLIC)
+                .addJavadoc("Delete entities in chunks of one transaction each. When a chunk fails, the chunks before it\n")
+                .addJavadoc("stay committed.\n")
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "DeleteMapping"))
+                        .addMember("value", "$S", "/batch")
+                        .build())
+                .returns(ParameterizedTypeName.get(responseEntity, WildcardTypeName.subtypeOf(Object.class)))
+                .addParameter(ParameterSpec.builder(ParameterizedTypeName.get(ClassName.get(List.class), idType), "ids")
+                        .addAnnotation(requestBody)
+                        .build())
+                .addStatement("checkBatchSize(ids)")
+                .addStatement("$N.deleteAllById(ids)", serviceVar)
+                .addStatement("return $T.noContent().build()", responseEntity)
+                .build());
+    }
+
+    /**
+     * Add the page size limits, the sort whitelist and the method applying them
+     */
+    private void addPaginationSupport(TypeSpec.Builder controllerBuilder) {
+        CodeGenConfig.Pagination pagination = config.getPagination();
+        controllerBuilder.addField(FieldSpec.builder(int.class, "DEFAULT_PAGE_SIZE",
+                        Modifier.PROTECTED, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", pagination.getDefaultSize())
+                .build());
+        controllerBuilder.addField(FieldSpec.builder(int.class, "MAX_PAGE_SIZE",
+                        Modifier.PROTECTED, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", pagination.getMaxSize())
+                .build());
+
+        CodeBlock.Builder sortableFields = CodeBlock.builder().add("$T.of(", Set.class);
+        for (int i = 0; i < model.getSortableFields().size(); i++) {
+            sortableFields.add(i > 0 ? ", $S" : "$S", model.getSortableFields().get(i));
+        }
+        controllerBuilder.addField(FieldSpec.builder(ParameterizedTypeName.get(Set.class, String.class),
+                        "SORTABLE_FIELDS", Modifier.PROTECTED, Modifier.STATIC, Modifier.FINAL)
+                .initializer(sortableFields.add(")").build())
+                .build());
+
+        ClassName sortOrder = ClassName.get("org.springframework.data.domain", "Sort", "Order");
+        controllerBuilder.addMethod(MethodSpec.methodBuilder("limitPageable")
+                .addModifiers(Modifier.PROTECTED)
+                .addJavadoc("Reject sorting by fields outside SORTABLE_FIELDS and reduce page sizes above MAX_PAGE_SIZE")
+                .returns(PAGEABLE)
+                .addParameter(PAGEABLE, "pageable")
+                .beginControlFlow("for ($T order : pageable.getSort())", sortOrder)
+                .beginControlFlow("if (!SORTABLE_FIELDS.contains(order.getProperty()))")
+                .addStatement("throw new $T($T.BAD_REQUEST, \"Sorting by '\" + order.getProperty() + \"' is not supported\")",
+                        RESPONSE_STATUS_EXCEPTION, HTTP_STATUS)
+                .endControlFlow()
+                .endControlFlow()
+                .beginControlFlow("if (pageable.getPageSize() <= MAX_PAGE_SIZE)")
+                .addStatement("return pageable")
                 .endControlFlow()
+                .addStatement("return $T.of(pageable.getPageNumber(), MAX_PAGE_SIZE, pageable.getSort())",
+                        ClassName.get("org.springframework.data.domain", "PageRequest"))
                 .build());
     }
 
-    private TypeName getIdType() {
-        for (CodeGenConfig.Field field : config.getFields()) {
-            if (config.getIdFields().contains(field.getName())) {
-                return getJavaType(field.getType());
-            }
+    /**
+     * GET endpoint returning one page, e.g. ?page=2&size=50&sort=createdAt,desc
+     */
+    private MethodSpec buildGetPageMethod(ClassName entityClass, String serviceVar) {
+        String pageType = model.isSlicePagination() ? "Slice" : "Page";
+        return MethodSpec.methodBuilder("getAll" + config.getEntityName() + "s")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                .returns(ParameterizedTypeName.get(ClassName.get("org.springframework.data.domain", pageType), entityClass))
+                .addParameter(buildPageableParameter())
+                .addStatement("return $N.findAll(limitPageable(pageable))", serviceVar)
+                .build();
+    }
+
+    /**
+     * Pageable request parameter with the configured default size and order
+     */
+    private ParameterSpec buildPageableParameter() {
+        AnnotationSpec.Builder pageableDefault = AnnotationSpec.builder(
+                        ClassName.get("org.springframework.data.web", "PageableDefault"))
+                .addMember("size", "DEFAULT_PAGE_SIZE");
+        // A stable default order keeps pages from overlapping
+        if (!model.getSortableFields().isEmpty()) {
+            pageableDefault.addMember("sort", "$S", model.getSortableFields().get(0));
         }
-        return ClassName.get(Long.class);
+        return ParameterSpec.builder(PAGEABLE, "pageable")
+                .addAnnotation(pageableDefault.build())
+                .build();
     }
 
-    private TypeName getJavaType(String type) {
-        switch (type) {
-            case "String":
-                return ClassName.get(String.class);
-            case "Long":
-                return ClassName.get(Long.class);
-            case "Integer":
-                return ClassName.get(Integer.class);
-            case "Boolean":
-                return ClassName.get(Boolean.class);
-            default:
-                return ClassName.get(String.class);
+    /**
+     * GET endpoints returning the records of a view, for all entities (one page of them when
+     * the entity is paginated) and for one entity by id
+     */
+    private void addViewEndpoints(TypeSpec.Builder controllerBuilder, EntityModel.ViewModel view, TypeName idType,
+                                  String serviceVar) {
+        ClassName recordClass = view.getRecordClass();
+        ClassName getMapping = ClassName.get("org.springframework.web.bind.annotation", "GetMapping");
+        String entityName = config.getEntityName();
+
+        MethodSpec.Builder getAll = MethodSpec.methodBuilder("getAll" + entityName + "sAs" + view.getCapitalizedName())
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(getMapping)
+                        .addMember("value", "$S", "/views/" + view.getName())
+                        .build());
+        if (model.isPaginated()) {
+            String pageType = model.isSlicePagination() ? "Slice" : "Page";
+            getAll.returns(ParameterizedTypeName.get(ClassName.get("org.springframework.data.domain", pageType), recordClass))
+                    .addParameter(buildPageableParameter())
+                    .addStatement("return $N.findAllAs$L(limitPageable(pageable))", serviceVar, view.getCapitalizedName());
+        } else {
+            getAll.returns(ParameterizedTypeName.get(ClassName.get(List.class), recordClass))
+                    .addStatement("return $N.findAllAs$L()", serviceVar, view.getCapitalizedName());
+        }
+        controllerBuilder.addMethod(getAll.build());
+
+        if (!model.hasCompositeId()) {
+            controllerBuilder.addMethod(MethodSpec.methodBuilder("get" + entityName + "ByIdAs" + view.getCapitalizedName())
+                    .addModifiers(Modifier.PUBLIC)
+                    .addAnnotation(AnnotationSpec.builder(getMapping)
+                            .addMember("value", "$S", "/{id}/views/" + view.getName())
+                            .build())
+                    .returns(ParameterizedTypeName.get(ClassName.get("org.springframework.http", "ResponseEntity"), recordClass))
+                    .addParameter(ParameterSpec.builder(idType, "id")
+                            .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "PathVariable"))
+                            .build())
+                    .addStatement("return $N.findByIdAs$L(id).map($T::ok).orElse($T.notFound().build())",
+                            serviceVar, view.getCapitalizedName(),
+                            ClassName.get("org.springframework.http", "ResponseEntity"),
+                            ClassName.get("org.springframework.http", "ResponseEntity"))
+                    .build());
         }
     }
+
+    /**
+     * GET endpoint returning the page after an opaque cursor, with the cursor of the next page
+     */
+    private MethodSpec buildGetKeysetPageMethod(String serviceVar) {
+        ClassName requestParam = ClassName.get("org.springframework.web.bind.annotation", "RequestParam");
+        return MethodSpec.methodBuilder("get" + config.getEntityName() + "KeysetPage")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                        .addMember("value", "$S", "/keyset")
+                        .build())
+                .returns(model.getServiceClass().nestedClass("KeysetPage"))
+                .addParameter(ParameterSpec.builder(String.class, "after")
+                        .addAnnotation(AnnotationSpec.builder(requestParam)
+                                .addMember("name", "$S", "after")
+                                .addMember("required", "false")
+                                .build())
+                        .build())
+                .addParameter(ParameterSpec.builder(int.class, "limit")
+                        .addAnnotation(AnnotationSpec.builder(requestParam)
+                                .addMember("name", "$S", "limit")
+                                .addMember("defaultValue", "$S", String.valueOf(config.getKeysetPagination().getDefaultLimit()))
+                                .build())
+                        .build())
+                .beginControlFlow("try")
+                .addStatement("return $N.findKeysetPage(after, $T.min($T.max(limit, 1), MAX_KEYSET_LIMIT))",
+                        serviceVar, Math.class, Math.class)
+                .nextControlFlow("catch ($T e)", IllegalArgumentException.class)
+                .addStatement("throw new $T($T.BAD_REQUEST, e.getMessage())", RESPONSE_STATUS_EXCEPTION, HTTP_STATUS)
+                .endControlFlow()
+                .build();
+    }
+
+    /**
+     * Add the ObjectMapper used by the export endpoint. It is set by a setter so that the
+     * constructors of existing controllers stay unchanged.
+     */
+    private void addExportSupport(TypeSpec.Builder baseControllerBuilder) {
+        baseControllerBuilder.addField(OBJECT_MAPPER, "objectMapper", Modifier.PROTECTED);
+        baseControllerBuilder.addMethod(MethodSpec.methodBuilder("setObjectMapper")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(ClassName.get("org.springframework.beans.factory.annotation", "Autowired"))
+                .addParameter(OBJECT_MAPPER, "objectMapper")
+                .addStatement("this.objectMapper = objectMapper")
+                .build());
+    }
+
+    /**
+     * GET endpoint writing all entities as newline-delimited JSON while they are read, so the
+     * response is never held in memory as a whole
+     */
+    private MethodSpec buildExportMethod(String serviceVar) {
+        ClassName streamingResponseBody = ClassName.get("org.springframework.web.servlet.mvc.method.annotation",
+                "StreamingResponseBody");
+        String entityVar = uncapitalize(config.getEntityName());
+        CodeBlock body = CodeBlock.builder()
+                .add("$T body = outputStream -> {\n$>", streamingResponseBody)
+                .beginControlFlow("try")
+                .add("$N.exportAll($N -> {\n$>", serviceVar, entityVar)
+                .beginControlFlow("try")
+                .addStatement("outputStream.write(objectMapper.writeValueAsBytes($N))", entityVar)
+                .addStatement("outputStream.write('\\n')")
+                .nextControlFlow("catch ($T e)", IOException.class)
+                .addStatement("throw new $T(e)", UncheckedIOException.class)
+                .endControlFlow()
+                .add("$<});\n")
+                .nextControlFlow("catch ($T e)", UncheckedIOException.class)
+                .add("// Write errors are reported to the container as they were thrown\n")
+                .addStatement("throw e.getCause()")
+                .endControlFlow()
+                .add("$<};\n")
+                .build();
+        return MethodSpec.methodBuilder("export" + config.getEntityName() + "s")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                        .addMember("value", "$S", "/export")
+                        .addMember("produces", "$T.APPLICATION_NDJSON_VALUE", MEDIA_TYPE)
+                        .build())
+                .returns(ParameterizedTypeName.get(ClassName.get("org.springframework.http", "ResponseEntity"),
+                        streamingResponseBody))
+                .addCode(body)
+                .addStatement("return $T.ok().contentType($T.APPLICATION_NDJSON).body(body)",
+                        ClassName.get("org.springframework.http", "ResponseEntity"), MEDIA_TYPE)
+                .build();
+    }
 }
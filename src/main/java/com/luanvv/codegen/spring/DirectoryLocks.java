@@ -0,0 +1,63 @@
+package com.luanvv.codegen.spring;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JVM wide locks on directories written by the plugin.
+ *
+ * In a parallel reactor build (mvn -T) the plugin executes concurrently for several modules in
+ * the same JVM and class realm. Modules normally write to their own directories and never wait
+ * for each other; modules configured to share a directory take turns writing to it.
+ */
+final class DirectoryLocks {
+
+    private static final ConcurrentMap<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    private DirectoryLocks() {
+    }
+
+    /**
+     * An action run while holding the directory locks
+     */
+    @FunctionalInterface
+    interface LockedAction<E extends Exception> {
+        void run() throws E;
+    }
+
+    /**
+     * Run an action while holding the locks of all given directories
+     */
+    static <E extends Exception> void withLocks(Collection<File> directories, LockedAction<E> action)
+            throws IOException, E {
+        // Canonical paths so that different spellings of a directory share a lock,
+        // acquired in sorted order so that concurrent callers cannot deadlock
+        TreeSet<String> paths = new TreeSet<>();
+        for (File directory : directories) {
+            if (directory != null) {
+                paths.add(directory.getCanonicalPath());
+            }
+        }
+
+        List<ReentrantLock> acquired = new ArrayList<>();
+        try {
+            for (String path : paths) {
+                ReentrantLock lock = LOCKS.computeIfAbsent(path, key -> new ReentrantLock());
+                lock.lock();
+                acquired.add(lock);
+            }
+            action.run();
+        } finally {
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                acquired.get(i).unlock();
+            }
+        }
+    }
+}
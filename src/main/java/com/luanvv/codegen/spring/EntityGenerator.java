@@ -4,7 +4,6 @@ import com.squareup.javapoet.*;
 import javax.lang.model.element.Modifier;
 import java.io.File;
 import java.io.IOException;
-import java.time.LocalDateTime;
 import java.util.Objects;
 
 /**
@@ -14,6 +13,10 @@ public class EntityGenerator extends BaseGenerator {
 
     public EntityGenerator(CodeGenConfig config, File outputDirectory) {
         super(config, outputDirectory);
+    }
+
+    public EntityGenerator(EntityModel model, File outputDirectory) {
+        super(model, outputDirectory);
     }    @Override
     public void generate() throws IOException {
         createPackageDirectory();
@@ -34,7 +37,7 @@ public class EntityGenerator extends BaseGenerator {
                         .build());
 
         // Add fields, getters, setters
-        for (CodeGenConfig.Field field : config.getFields()) {
+        for (EntityModel.FieldModel field : model.getFields()) {
             addFieldToEntity(entityBuilder, field);
         }
 
@@ -54,22 +57,23 @@ public class EntityGenerator extends BaseGenerator {
         String entityPackage = config.getPackageName() + ".entity";
         JavaFile javaFile = JavaFile.builder(entityPackage, entityBuilder.build())
                 .build();// Write to file
-        javaFile.writeTo(outputDirectory);
+        writeJavaFile(javaFile);
         
-        System.out.println("Generated Entity class: " + config.getEntityName());
+        log("Generated Entity class: " + config.getEntityName());
     }
 
-    private void addFieldToEntity(TypeSpec.Builder entityBuilder, CodeGenConfig.Field field) {
-        // Determine the Java type
-        TypeName fieldType = getJavaType(field.getType());
+    private void addFieldToEntity(TypeSpec.Builder entityBuilder, EntityModel.FieldModel field) {
+        TypeName fieldType = field.getJavaType();
         
         // Create field with annotations
         FieldSpec.Builder fieldBuilder = FieldSpec.builder(fieldType, field.getName(), Modifier.PRIVATE);
 
         // Add JPA annotations
-        if (config.getIdFields().contains(field.getName())) {
+        if (field.isId()) {
             fieldBuilder.addAnnotation(ClassName.get("jakarta.persistence", "Id"));
-            if ("Long".equals(field.getType()) || "Integer".equals(field.getType())) {
+            if (("Long".equals(field.getType()) || "Integer".equals(field.getType())) && config.isSequenceIdGeneration()) {
+                addSequenceGenerator(fieldBuilder);
+            } else if ("Long".equals(field.getType()) || "Integer".equals(field.getType())) {
                 fieldBuilder.addAnnotation(AnnotationSpec.builder(ClassName.get("jakarta.persistence", "GeneratedValue"))
                         .addMember("strategy", "$T.IDENTITY", ClassName.get("jakarta.persistence", "GenerationType"))
                         .build());
@@ -78,11 +82,11 @@ public class EntityGenerator extends BaseGenerator {
 
         // Add Column annotation
         AnnotationSpec.Builder columnBuilder = AnnotationSpec.builder(ClassName.get("jakarta.persistence", "Column"));
-        columnBuilder.addMember("name", "$S", camelToSnakeCase(field.getName()));
-        columnBuilder.addMember("nullable", "$L", field.isNullable());
+        columnBuilder.addMember("name", "$S", field.getColumnName());
+        columnBuilder.addMember("nullable", "$L", field.getField().isNullable());
         
-        if (field.getLength() != null && ("String".equals(field.getType()))) {
-            columnBuilder.addMember("length", "$L", field.getLength());
+        if (field.getField().getLength() != null && ("String".equals(field.getType()))) {
+            columnBuilder.addMember("length", "$L", field.getField().getLength());
         }
         
         fieldBuilder.addAnnotation(columnBuilder.build());
@@ -90,36 +94,38 @@ public class EntityGenerator extends BaseGenerator {
         entityBuilder.addField(fieldBuilder.build());
 
         // Add getter
-        entityBuilder.addMethod(MethodSpec.methodBuilder("get" + capitalize(field.getName()))
+        entityBuilder.addMethod(MethodSpec.methodBuilder("get" + field.getCapitalizedName())
                 .addModifiers(Modifier.PUBLIC)
                 .returns(fieldType)
                 .addStatement("return this.$N", field.getName())
                 .build());
 
         // Add setter
-        entityBuilder.addMethod(MethodSpec.methodBuilder("set" + capitalize(field.getName()))
+        entityBuilder.addMethod(MethodSpec.methodBuilder("set" + field.getCapitalizedName())
                 .addModifiers(Modifier.PUBLIC)
                 .addParameter(fieldType, field.getName())
                 .addStatement("this.$N = $N", field.getName(), field.getName())
                 .build());
     }
 
-    private TypeName getJavaType(String type) {
-        switch (type) {
-            case "String":
-                return ClassName.get(String.class);
-            case "Long":
-                return ClassName.get(Long.class);
-            case "Integer":
-                return ClassName.get(Integer.class);
-            case "Boolean":
-                return ClassName.get(Boolean.class);
-            case "LocalDateTime":
-                return ClassName.get(LocalDateTime.class);
-            default:
-                return ClassName.get(String.class); // Default to String
-        }
-    }    private void addToStringMethod(TypeSpec.Builder entityBuilder) {
+    /**
+     * Take ids from the configured sequence, with Hibernate's default pooled optimizer
+     */
+    private void addSequenceGenerator(FieldSpec.Builder fieldBuilder) {
+        CodeGenConfig.IdGeneration idGeneration = config.getIdGeneration();
+        String sequenceName = config.getEffectiveSequenceName();
+        fieldBuilder.addAnnotation(AnnotationSpec.builder(ClassName.get("jakarta.persistence", "GeneratedValue"))
+                .addMember("strategy", "$T.SEQUENCE", ClassName.get("jakarta.persistence", "GenerationType"))
+                .addMember("generator", "$S", sequenceName)
+                .build());
+        fieldBuilder.addAnnotation(AnnotationSpec.builder(ClassName.get("jakarta.persistence", "SequenceGenerator"))
+                .addMember("name", "$S", sequenceName)
+                .addMember("sequenceName", "$S", sequenceName)
+                .addMember("allocationSize", "$L", idGeneration.getAllocationSize())
+                .build());
+    }
+
+    private void addToStringMethod(TypeSpec.Builder entityBuilder) {
         MethodSpec.Builder toStringMethod = MethodSpec.methodBuilder("toString")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(Override.class)
@@ -149,8 +155,7 @@ public class EntityGenerator extends BaseGenerator {
                 .addParameter(Object.class, "o");
 
         equalsBuilder.addStatement("if (this == o) return true");
-        equalsBuilder.addStatement("if (o == null || getClass() != o.getClass()) return false");        equalsBuilder.addStatement("$T that = ($T) o", ClassName.get(config.getPackageName() + ".entity", config.getEntityName()), 
-                ClassName.get(config.getPackageName() + ".entity", config.getEntityName()));
+        equalsBuilder.addStatement("if (o == null || getClass() != o.getClass()) return false");        equalsBuilder.addStatement("$T that = ($T) o", model.getEntityClass(), model.getEntityClass());
 
         // Build a single return statement with all field comparisons
         if (config.getFields().size() == 1) {
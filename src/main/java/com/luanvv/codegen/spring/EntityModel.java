@@ -0,0 +1,361 @@
+package com.luanvv.codegen.spring;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolved form of an entity configuration, shared by all generators of the entity.
+ *
+ * Java types, id metadata, the names of the generated classes and the field index are
+ * computed once when the model is created instead of in every generator. The model is
+ * immutable and may be used by generators running concurrently.
+ */
+public final class EntityModel {
+
+    private static final Map<String, ClassName> JAVA_TYPES = Map.of(
+            "String", ClassName.get(String.class),
+            "Long", ClassName.get(Long.class),
+            "Integer", ClassName.get(Integer.class),
+            "Boolean", ClassName.get(Boolean.class),
+            "LocalDateTime", ClassName.get(LocalDateTime.class));
+    private static final ClassName DEFAULT_JAVA_TYPE = ClassName.get(String.class);
+    private static final ClassName DEFAULT_ID_TYPE = ClassName.get(Long.class);
+
+    private final CodeGenConfig config;
+    private final List<FieldModel> fields;
+    private final Map<String, FieldModel> fieldsByName;
+    private final List<FieldModel> idFields;
+    private final TypeName idType;
+    private final ClassName entityClass;
+    private final ClassName repositoryClass;
+    private final ClassName serviceClass;
+    private final ClassName baseServiceImplClass;
+    private final ClassName serviceImplClass;
+    private final ClassName baseControllerClass;
+    private final ClassName controllerClass;
+    private final List<String> sortableFields;
+    private final List<FieldModel> keysetSortKeys;
+    private final List<ViewModel> views;
+
+    public EntityModel(CodeGenConfig config) {
+        this.config = config;
+
+        Set<String> idFieldNames = config.getIdFields() != null
+                ? new HashSet<>(config.getIdFields()) : Collections.emptySet();
+        List<FieldModel> resolvedFields = new ArrayList<>();
+        Map<String, FieldModel> byName = new LinkedHashMap<>();
+        List<FieldModel> resolvedIdFields = new ArrayList<>();
+        List<CodeGenConfig.Field> configFields = config.getFields() != null
+                ? config.getFields() : Collections.emptyList();
+        for (int i = 0; i < configFields.size(); i++) {
+            CodeGenConfig.Field field = configFields.get(i);
+            FieldModel fieldModel = new FieldModel(field, i, idFieldNames.contains(field.getName()));
+            resolvedFields.add(fieldModel);
+            byName.putIfAbsent(field.getName(), fieldModel);
+            if (fieldModel.isId()) {
+                resolvedIdFields.add(fieldModel);
+            }
+        }
+        this.fields = Collections.unmodifiableList(resolvedFields);
+        this.fieldsByName = Collections.unmodifiableMap(byName);
+        this.idFields = Collections.unmodifiableList(resolvedIdFields);
+        this.idType = resolvedIdFields.isEmpty() ? DEFAULT_ID_TYPE : resolvedIdFields.get(0).getJavaType();
+
+        String packageName = config.getPackageName();
+        String entityName = config.getEntityName();
+        this.entityClass = ClassName.get(packageName + ".entity", entityName);
+        this.repositoryClass = ClassName.get(packageName + ".repository", entityName + "Repository");
+        this.serviceClass = ClassName.get(packageName + ".service", entityName + "Service");
+        this.baseServiceImplClass = ClassName.get(packageName + ".service.base", "Base" + entityName + "ServiceImpl");
+        this.serviceImplClass = ClassName.get(packageName + ".service", entityName + "ServiceImpl");
+        this.baseControllerClass = ClassName.get(packageName + ".controller.base", "Base" + entityName + "Controller");
+        this.controllerClass = ClassName.get(packageName + ".controller", entityName + "Controller");
+
+        CodeGenConfig.Pagination pagination = config.getPagination();
+        List<String> sortable = new ArrayList<>();
+        if (pagination != null && pagination.getSortableFields() != null) {
+            sortable.addAll(pagination.getSortableFields());
+        } else {
+            resolvedIdFields.forEach(field -> sortable.add(field.getName()));
+        }
+        this.sortableFields = Collections.unmodifiableList(sortable);
+
+        CodeGenConfig.KeysetPagination keyset = config.getKeysetPagination();
+        List<FieldModel> sortKeys = new ArrayList<>();
+        if (keyset != null && keyset.getSortKeys() != null) {
+            keyset.getSortKeys().forEach(name -> sortKeys.add(byName.get(name)));
+        } else if (keyset != null && !resolvedIdFields.isEmpty()) {
+            sortKeys.add(resolvedIdFields.get(0));
+        }
+        this.keysetSortKeys = Collections.unmodifiableList(sortKeys);
+
+        List<ViewModel> resolvedViews = new ArrayList<>();
+        if (config.getViews() != null) {
+            config.getViews().forEach((name, fieldNames) -> {
+                List<FieldModel> viewFields = new ArrayList<>();
+                fieldNames.forEach(fieldName -> viewFields.add(byName.get(fieldName)));
+                resolvedViews.add(new ViewModel(name, packageName + ".dto", entityName, viewFields));
+            });
+        }
+        this.views = Collections.unmodifiableList(resolvedViews);
+    }
+
+    /**
+     * Resolve the Java type of a configured field type. Unknown types map to String.
+     */
+    public static TypeName resolveJavaType(String type) {
+        return JAVA_TYPES.getOrDefault(type, DEFAULT_JAVA_TYPE);
+    }
+
+    public CodeGenConfig getConfig() {
+        return config;
+    }
+
+    public String getEntityName() {
+        return config.getEntityName();
+    }
+
+    public String getPackageName() {
+        return config.getPackageName();
+    }
+
+    /**
+     * Get all fields in configuration order
+     */
+    public List<FieldModel> getFields() {
+        return fields;
+    }
+
+    /**
+     * Get a field by name, or null if the entity has no such field
+     */
+    public FieldModel getField(String name) {
+        return fieldsByName.get(name);
+    }
+
+    /**
+     * Check if the entity has a field with the given name
+     */
+    public boolean hasField(String name) {
+        return fieldsByName.containsKey(name);
+    }
+
+    /**
+     * Get the id fields in configuration order
+     */
+    public List<FieldModel> getIdFields() {
+        return idFields;
+    }
+
+    /**
+     * Check if the id consists of more than one field
+     */
+    public boolean hasCompositeId() {
+        return idFields.size() > 1;
+    }
+
+    /**
+     * Get the Java type of the first id field (Long when there is none)
+     */
+    public TypeName getIdType() {
+        return idType;
+    }
+
+    /**
+     * Check if the list endpoint returns pages instead of all entities
+     */
+    public boolean isPaginated() {
+        return config.getPagination() != null;
+    }
+
+    /**
+     * Check if pages are slices, which skip the count query and only know whether a next page exists
+     */
+    public boolean isSlicePagination() {
+        return isPaginated() && "slice".equals(config.getPagination().getMode());
+    }
+
+    /**
+     * Get the fields the list endpoint may sort by: the configured ones, or else the id fields
+     */
+    public List<String> getSortableFields() {
+        return sortableFields;
+    }
+
+    /**
+     * Check if a keyset pagination endpoint is generated
+     */
+    public boolean isKeysetPaginated() {
+        return config.getKeysetPagination() != null;
+    }
+
+    /**
+     * Get the fields keyset pages are ordered and continued by: the configured sort keys, or else the first id field
+     */
+    public List<FieldModel> getKeysetSortKeys() {
+        return keysetSortKeys;
+    }
+
+    /**
+     * Check if a streaming export endpoint is generated
+     */
+    public boolean isExported() {
+        return config.getExport() != null;
+    }
+
+    /**
+     * Check if batch create, update and delete endpoints are generated
+     */
+    public boolean isBatched() {
+        return config.getBatch() != null;
+    }
+
+    /**
+     * Get the named views in configuration order
+     */
+    public List<ViewModel> getViews() {
+        return views;
+    }
+
+    public ClassName getEntityClass() {
+        return entityClass;
+    }
+
+    public ClassName getRepositoryClass() {
+        return repositoryClass;
+    }
+
+    public ClassName getServiceClass() {
+        return serviceClass;
+    }
+
+    public ClassName getBaseServiceImplClass() {
+        return baseServiceImplClass;
+    }
+
+    public ClassName getServiceImplClass() {
+        return serviceImplClass;
+    }
+
+    public ClassName getBaseControllerClass() {
+        return baseControllerClass;
+    }
+
+    public ClassName getControllerClass() {
+        return controllerClass;
+    }
+
+    /**
+     * Resolved form of a configured field
+     */
+    public static final class FieldModel {
+        private final CodeGenConfig.Field field;
+        private final int index;
+        private final boolean id;
+        private final TypeName javaType;
+        private final String capitalizedName;
+        private final String columnName;
+
+        private FieldModel(CodeGenConfig.Field field, int index, boolean id) {
+            this.field = field;
+            this.index = index;
+            this.id = id;
+            this.javaType = resolveJavaType(field.getType());
+            String name = field.getName();
+            this.capitalizedName = name.isEmpty() ? name : Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            this.columnName = name.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+        }
+
+        public CodeGenConfig.Field getField() {
+            return field;
+        }
+
+        public String getName() {
+            return field.getName();
+        }
+
+        public String getType() {
+            return field.getType();
+        }
+
+        /**
+         * Get the position of the field in the configuration
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public boolean isId() {
+            return id;
+        }
+
+        public TypeName getJavaType() {
+            return javaType;
+        }
+
+        /**
+         * Get the field name with its first letter capitalized, as used in accessor names
+         */
+        public String getCapitalizedName() {
+            return capitalizedName;
+        }
+
+        /**
+         * Get the snake_case column name of the field
+         */
+        public String getColumnName() {
+            return columnName;
+        }
+    }
+
+    /**
+     * Resolved form of a named view: a record of some of the entity's fields
+     */
+    public static final class ViewModel {
+        private final String name;
+        private final String capitalizedName;
+        private final ClassName recordClass;
+        private final List<FieldModel> fields;
+
+        private ViewModel(String name, String dtoPackage, String entityName, List<FieldModel> fields) {
+            this.name = name;
+            this.capitalizedName = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            this.recordClass = ClassName.get(dtoPackage, entityName + capitalizedName);
+            this.fields = Collections.unmodifiableList(fields);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the view name with its first letter capitalized, as used in method names
+         */
+        public String getCapitalizedName() {
+            return capitalizedName;
+        }
+
+        /**
+         * Get the record the view is selected into, e.g. ProductSummary in the dto package
+         */
+        public ClassName getRecordClass() {
+            return recordClass;
+        }
+
+        /**
+         * Get the fields of the view, which are the record components
+         */
+        public List<FieldModel> getFields() {
+            return fields;
+        }
+    }
+}
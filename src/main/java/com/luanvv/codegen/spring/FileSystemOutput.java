@@ -0,0 +1,50 @@
+package com.luanvv.codegen.spring;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Generator output written to disk
+ */
+public class FileSystemOutput implements GeneratorOutput {
+
+    /** Shared instance; the class holds no state */
+    public static final FileSystemOutput INSTANCE = new FileSystemOutput();
+
+    @Override
+    public boolean exists(File file) {
+        return file.exists();
+    }
+
+    @Override
+    public byte[] read(File file) throws IOException {
+        return Files.readAllBytes(file.toPath());
+    }
+
+    @Override
+    public boolean write(File file, byte[] content) throws IOException {
+        Path targetPath = file.toPath();
+        if (Files.isRegularFile(targetPath) && Files.size(targetPath) == content.length
+                && Arrays.equals(Files.readAllBytes(targetPath), content)) {
+            return false;
+        }
+        Files.createDirectories(targetPath.getParent());
+        Files.write(targetPath, content);
+        return true;
+    }
+
+    @Override
+    public String[] list(File directory) {
+        return directory.list();
+    }
+
+    @Override
+    public void createDirectories(File directory) {
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.luanvv.codegen.spring;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.representer.Representer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache of generated Java sources, shared between modules, checkouts and builds.
+ *
+ * An entry is keyed by a hash of the resolved entity configuration, the plugin version and the
+ * generation options, and holds the generated files relative to the output directory. Entries
+ * are written to a temporary directory and moved into place, so concurrent builds sharing a cache
+ * directory never see partial entries. SQL migrations are not cached: their names depend on the
+ * migration directory of each project.
+ *
+ * Loading an entry touches its manifest, so {@link #prune(Duration)} can evict entries that no
+ * build has used for a while.
+ */
+public class GenerationCache {
+
+    // Bump when the entry layout changes
+    private static final String FORMAT_VERSION = "1";
+    private static final String MANIFEST_FILE = "manifest";
+    private static final String FILES_DIRECTORY = "files";
+
+    private static String pluginFingerprint;
+
+    private final File cacheDirectory;
+
+    public GenerationCache(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Hash of the plugin classes, computed once per JVM. Part of the cache settings, so a rebuilt
+     * -SNAPSHOT plugin with the same version does not restore sources generated by the old build.
+     */
+    public static synchronized String pluginFingerprint() throws IOException {
+        if (pluginFingerprint == null) {
+            Path location;
+            try {
+                location = Paths.get(GenerationCache.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            } catch (URISyntaxException | RuntimeException e) {
+                throw new IOException("Cannot locate the plugin classes", e);
+            }
+            pluginFingerprint = fingerprintOf(location);
+        }
+        return pluginFingerprint;
+    }
+
+    /**
+     * Hash a jar file, or all class files of a classes directory (e.g. when run from an IDE)
+     */
+    static String fingerprintOf(Path location) throws IOException {
+        if (Files.isRegularFile(location)) {
+            return GenerationFingerprintStore.sha256(Files.readAllBytes(location));
+        }
+        List<Path> classFiles;
+        try (Stream<Path> paths = Files.walk(location)) {
+            classFiles = paths.filter(path -> path.toString().endsWith(".class"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        List<byte[]> parts = new ArrayList<>();
+        for (Path classFile : classFiles) {
+            parts.add(location.relativize(classFile).toString().getBytes(StandardCharsets.UTF_8));
+            parts.add(Files.readAllBytes(classFile));
+        }
+        return GenerationFingerprintStore.sha256(parts.toArray(new byte[0][]));
+    }
+
+    /**
+     * Compute the cache key of an entity configuration for the given plugin version and options
+     */
+    public static String keyOf(CodeGenConfig config, String settings) {
+        // Bean properties are dumped in sorted order, so equal configurations give equal YAML
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        String serializedConfig = new Yaml(new Representer(options), options).dump(config);
+        return GenerationFingerprintStore.sha256(FORMAT_VERSION.getBytes(StandardCharsets.UTF_8),
+                serializedConfig.getBytes(StandardCharsets.UTF_8), settings.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Load the files of a cache entry
+     *
+     * @return the cached files, or null if there is no complete entry for the key
+     */
+    public List<CachedFile> load(String key) throws IOException {
+        Path entryDirectory = getEntryDirectory(key);
+        Path manifest = entryDirectory.resolve(MANIFEST_FILE);
+        if (!Files.isRegularFile(manifest)) {
+            return null;
+        }
+        List<CachedFile> files = new ArrayList<>();
+        for (String relativePath : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            if (relativePath.isEmpty()) {
+                continue;
+            }
+            Path cachedPath = entryDirectory.resolve(FILES_DIRECTORY).resolve(relativePath).normalize();
+            if (!cachedPath.startsWith(entryDirectory) || !Files.isRegularFile(cachedPath)) {
+                // Damaged entry: regenerate and let the next store replace it
+                return null;
+            }
+            files.add(new CachedFile(relativePath, Files.readAllBytes(cachedPath)));
+        }
+        touch(manifest);
+        return files;
+    }
+
+    /**
+     * Delete entries that were not stored or loaded within the given age, and temporary
+     * directories left behind by builds that were killed while storing
+     *
+     * @return the number of deleted entries
+     */
+    public int prune(Duration maxAge) throws IOException {
+        Path root = cacheDirectory.getAbsoluteFile().toPath();
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        FileTime cutoff = FileTime.from(Instant.now().minus(maxAge));
+        int pruned = 0;
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path prefix : prefixes) {
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(prefix)) {
+                    for (Path entry : entries) {
+                        if (lastUsed(entry).compareTo(cutoff) < 0 && evict(entry)) {
+                            pruned++;
+                        }
+                    }
+                }
+            }
+        }
+        return pruned;
+    }
+
+    private static FileTime lastUsed(Path entry) throws IOException {
+        Path manifest = entry.resolve(MANIFEST_FILE);
+        return Files.isRegularFile(manifest) ? Files.getLastModifiedTime(manifest) : Files.getLastModifiedTime(entry);
+    }
+
+    private static boolean evict(Path entry) throws IOException {
+        // Move the entry away first, so concurrent builds see it either complete or missing
+        Path evicted = entry.resolveSibling(entry.getFileName() + ".evicted-" + UUID.randomUUID());
+        try {
+            Files.move(entry, evicted, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Evicted or replaced concurrently by another build
+            return false;
+        }
+        deleteRecursively(evicted);
+        return true;
+    }
+
+    private static void touch(Path manifest) {
+        try {
+            Files.setLastModifiedTime(manifest, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // A read-only shared cache still serves its entries, it just cannot be pruned by age
+        }
+    }
+
+    /**
+     * Store generated files under a key. An existing entry for the key is kept.
+     *
+     * @param outputDirectory the directory the files were generated into
+     * @param files the generated files, all inside the output directory
+     * @param output the output the files were written to
+     */
+    public void store(String key, File outputDirectory, List<File> files, GeneratorOutput output) throws IOException {
+        Path entryDirectory = getEntryDirectory(key);
+        if (Files.isRegularFile(entryDirectory.resolve(MANIFEST_FILE))) {
+            return;
+        }
+        Files.createDirectories(entryDirectory.getParent());
+
+        Path outputPath = outputDirectory.getAbsoluteFile().toPath().normalize();
+        Path temporaryDirectory = Files.createTempDirectory(entryDirectory.getParent(), key + ".tmp");
+        try {
+            List<String> manifest = new ArrayList<>();
+            for (File file : files) {
+                Path relative = outputPath.relativize(file.getAbsoluteFile().toPath().normalize());
+                if (relative.startsWith("..")) {
+                    throw new IOException("Generated file is outside the output directory: " + file);
+                }
+                Path cachedPath = temporaryDirectory.resolve(FILES_DIRECTORY).resolve(relative);
+                Files.createDirectories(cachedPath.getParent());
+                Files.write(cachedPath, output.read(file));
+                manifest.add(relative.toString().replace(File.separatorChar, '/'));
+            }
+            // The manifest marks the entry as complete
+            Files.write(temporaryDirectory.resolve(MANIFEST_FILE), manifest, StandardCharsets.UTF_8);
+            moveIntoPlace(temporaryDirectory, entryDirectory);
+        } finally {
+            deleteRecursively(temporaryDirectory);
+        }
+    }
+
+    private void moveIntoPlace(Path temporaryDirectory, Path entryDirectory) throws IOException {
+        try {
+            Files.move(temporaryDirectory, entryDirectory, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Stored concurrently by another build
+        } catch (AtomicMoveNotSupportedException e) {
+            if (!Files.exists(entryDirectory)) {
+                Files.move(temporaryDirectory, entryDirectory);
+            }
+        } catch (IOException e) {
+            // Some file systems report an existing non-empty target differently
+            if (!Files.isRegularFile(entryDirectory.resolve(MANIFEST_FILE))) {
+                throw e;
+            }
+        }
+    }
+
+    private Path getEntryDirectory(String key) {
+        // Two level layout keeps directories small for large caches
+        return cacheDirectory.getAbsoluteFile().toPath().resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * A cached file and its path relative to the output directory
+     */
+    public static final class CachedFile {
+        private final String relativePath;
+        private final byte[] content;
+
+        private CachedFile(String relativePath, byte[] content) {
+            this.relativePath = relativePath;
+            this.content = content;
+        }
+
+        public String getRelativePath() {
+            return relativePath;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+    }
+}
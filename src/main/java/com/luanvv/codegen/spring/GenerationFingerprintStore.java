@@ -0,0 +1,172 @@
+package com.luanvv.codegen.spring;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Persistent store of configuration file fingerprints used for incremental generation.
+ *
+ * For every processed configuration file the store records a hash of the YAML content
+ * combined with the plugin version and generation settings, together with the files
+ * produced from it. A configuration file whose fingerprint is unchanged and whose
+ * outputs still exist does not need to be generated again.
+ */
+public class GenerationFingerprintStore {
+
+    private static final String HASH_PREFIX = "hash.";
+    private static final String OUTPUTS_PREFIX = "outputs.";
+    private static final String OUTPUT_SEPARATOR = File.pathSeparator;
+
+    private final File storeFile;
+    private final Properties properties = new Properties();
+
+    public GenerationFingerprintStore(File storeFile) {
+        this.storeFile = storeFile;
+    }
+
+    /**
+     * Load previously saved fingerprints, if any
+     */
+    public void load() throws IOException {
+        properties.clear();
+        if (!storeFile.exists()) {
+            return;
+        }
+        try (InputStream inputStream = Files.newInputStream(storeFile.toPath())) {
+            properties.load(inputStream);
+        }
+    }
+
+    /**
+     * Save the fingerprints to the store file
+     */
+    public void save() throws IOException {
+        File parent = storeFile.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (OutputStream outputStream = Files.newOutputStream(storeFile.toPath())) {
+            properties.store(outputStream, "Spring Boot code generator fingerprints");
+        }
+    }
+
+    /**
+     * Compute the fingerprint of a configuration file for the given generation settings
+     */
+    public static String fingerprint(File configFile, String settings) throws IOException {
+        return sha256(Files.readAllBytes(configFile.toPath()), settings.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Check whether a configuration file is unchanged since the last recorded generation
+     * and all files generated from it are still present
+     */
+    public boolean isUpToDate(File configFile, String fingerprint) {
+        String key = keyOf(configFile);
+        if (!fingerprint.equals(properties.getProperty(HASH_PREFIX + key))) {
+            return false;
+        }
+        for (File output : getOutputs(key)) {
+            if (!output.exists()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Record the fingerprint and generated files of a configuration file
+     */
+    public void put(File configFile, String fingerprint, Collection<File> outputs) {
+        String key = keyOf(configFile);
+        List<String> paths = new ArrayList<>();
+        for (File output : outputs) {
+            paths.add(output.getAbsolutePath());
+        }
+        properties.setProperty(HASH_PREFIX + key, fingerprint);
+        properties.setProperty(OUTPUTS_PREFIX + key, String.join(OUTPUT_SEPARATOR, paths));
+    }
+
+    /**
+     * Get the files recorded for a configuration file
+     */
+    public List<File> getOutputs(File configFile) {
+        return getOutputs(keyOf(configFile));
+    }
+
+    /**
+     * Remove entries for configuration files that are no longer processed.
+     *
+     * @return the files recorded for the removed configuration files
+     */
+    public Set<File> removeAllExcept(Collection<File> configFiles) {
+        Set<String> retainedKeys = new HashSet<>();
+        for (File configFile : configFiles) {
+            retainedKeys.add(keyOf(configFile));
+        }
+
+        Set<File> orphanedOutputs = new TreeSet<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (!name.startsWith(HASH_PREFIX)) {
+                continue;
+            }
+            String key = name.substring(HASH_PREFIX.length());
+            if (!retainedKeys.contains(key)) {
+                orphanedOutputs.addAll(getOutputs(key));
+                properties.remove(HASH_PREFIX + key);
+                properties.remove(OUTPUTS_PREFIX + key);
+            }
+        }
+        return orphanedOutputs;
+    }
+
+    private List<File> getOutputs(String key) {
+        List<File> outputs = new ArrayList<>();
+        String value = properties.getProperty(OUTPUTS_PREFIX + key);
+        if (value == null || value.isEmpty()) {
+            return outputs;
+        }
+        for (String path : value.split(OUTPUT_SEPARATOR)) {
+            outputs.add(new File(path));
+        }
+        return outputs;
+    }
+
+    private String keyOf(File configFile) {
+        return configFile.getAbsolutePath();
+    }
+
+    /**
+     * Compute a hex encoded SHA-256 hash over the given byte arrays
+     */
+    public static String sha256(byte[]... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (byte[] part : parts) {
+                digest.update(part);
+                // Separate parts so that ("ab", "c") and ("a", "bc") hash differently
+                digest.update((byte) 0);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
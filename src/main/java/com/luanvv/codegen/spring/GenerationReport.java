@@ -0,0 +1,342 @@
+package com.luanvv.codegen.spring;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Timings and file statistics of a code generation run.
+ *
+ * Every processed entity records the time spent in each phase (parse, modelBuild, validate, resolve,
+ * one phase per generator, write) together with the number of files written, unchanged and
+ * skipped and the bytes written. Phases of the whole run, such as copying resources, are
+ * recorded separately. The report is written as JSON and summarized for the build log.
+ *
+ * Entities of different configuration files may be recorded concurrently.
+ */
+public class GenerationReport {
+
+    private static final int SLOWEST_ENTITY_COUNT = 5;
+
+    private final Map<String, ConfigFileReport> configFiles = new LinkedHashMap<>();
+    private final Map<String, Long> runPhaseNanos = new LinkedHashMap<>();
+    private final long startNanos = System.nanoTime();
+    private long totalNanos;
+
+    /**
+     * Create a report listing the given configuration files in this order
+     */
+    public GenerationReport(Collection<File> configFiles) {
+        for (File configFile : configFiles) {
+            getConfigFile(configFile);
+        }
+    }
+
+    /**
+     * Get the report of a configuration file
+     */
+    public synchronized ConfigFileReport getConfigFile(File configFile) {
+        return configFiles.computeIfAbsent(configFile.getAbsolutePath(), ConfigFileReport::new);
+    }
+
+    /**
+     * Add time spent in a phase of the whole run, such as copying resources
+     */
+    public synchronized void addPhase(String phase, long nanos) {
+        runPhaseNanos.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Mark the end of the run
+     */
+    public synchronized void finish() {
+        totalNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Write the report as JSON
+     */
+    public void write(File reportFile) throws IOException {
+        File parent = reportFile.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        Files.write(reportFile.toPath(), toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Render the report as JSON. Times are in milliseconds.
+     */
+    public synchronized String toJson() {
+        Totals totals = getTotals();
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"totalMillis\": ").append(millis(totalNanos)).append(",\n");
+        json.append("  \"entityCount\": ").append(totals.entityCount).append(",\n");
+        json.append("  \"configFileCount\": ").append(configFiles.size()).append(",\n");
+        json.append("  \"unchangedConfigFileCount\": ").append(totals.unchangedConfigFileCount).append(",\n");
+        json.append("  \"filesWritten\": ").append(totals.filesWritten).append(",\n");
+        json.append("  \"filesUnchanged\": ").append(totals.filesUnchanged).append(",\n");
+        json.append("  \"filesSkipped\": ").append(totals.filesSkipped).append(",\n");
+        json.append("  \"bytesWritten\": ").append(totals.bytesWritten).append(",\n");
+        json.append("  \"phases\": ");
+        appendPhases(json, totals.phaseNanos);
+        json.append(",\n");
+        json.append("  \"runPhases\": ");
+        appendPhases(json, runPhaseNanos);
+        json.append(",\n");
+        json.append("  \"configFiles\": [");
+        String fileSeparator = "\n";
+        for (ConfigFileReport configFile : configFiles.values()) {
+            json.append(fileSeparator);
+            configFile.appendJson(json);
+            fileSeparator = ",\n";
+        }
+        json.append(configFiles.isEmpty() ? "]\n" : "\n  ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    /**
+     * Summarize the report in a few lines for the build log
+     */
+    public synchronized List<String> getSummary() {
+        Totals totals = getTotals();
+        List<String> lines = new ArrayList<>();
+        lines.add("Generation report: " + totals.entityCount + " entities from " + configFiles.size()
+                + " configuration file(s) (" + totals.unchangedConfigFileCount + " unchanged) in "
+                + millis(totalNanos) + " ms");
+
+        Map<String, Long> phases = new LinkedHashMap<>(totals.phaseNanos);
+        runPhaseNanos.forEach((phase, nanos) -> phases.merge(phase, nanos, Long::sum));
+        if (!phases.isEmpty()) {
+            List<String> parts = new ArrayList<>();
+            phases.forEach((phase, nanos) -> parts.add(phase + " " + millis(nanos) + " ms"));
+            lines.add("  Phases: " + String.join(", ", parts));
+        }
+
+        lines.add("  Files: " + totals.filesWritten + " written (" + totals.bytesWritten + " bytes), "
+                + totals.filesUnchanged + " unchanged, " + totals.filesSkipped + " skipped");
+
+        List<EntityReport> slowest = new ArrayList<>();
+        for (ConfigFileReport configFile : configFiles.values()) {
+            slowest.addAll(configFile.getEntities());
+        }
+        if (!slowest.isEmpty()) {
+            slowest.sort(Comparator.comparingLong(EntityReport::getTotalNanos).reversed());
+            List<String> parts = new ArrayList<>();
+            for (EntityReport entity : slowest.subList(0, Math.min(SLOWEST_ENTITY_COUNT, slowest.size()))) {
+                parts.add(entity.entityName + " " + millis(entity.getTotalNanos()) + " ms");
+            }
+            lines.add("  Slowest entities: " + String.join(", ", parts));
+        }
+        return lines;
+    }
+
+    private Totals getTotals() {
+        Totals totals = new Totals();
+        for (ConfigFileReport configFile : configFiles.values()) {
+            if (configFile.isUnchanged()) {
+                totals.unchangedConfigFileCount++;
+            }
+            for (EntityReport entity : configFile.getEntities()) {
+                totals.entityCount++;
+                synchronized (entity) {
+                    totals.filesWritten += entity.filesWritten;
+                    totals.filesUnchanged += entity.filesUnchanged;
+                    totals.filesSkipped += entity.filesSkipped;
+                    totals.bytesWritten += entity.bytesWritten;
+                    entity.phaseNanos.forEach((phase, nanos) -> totals.phaseNanos.merge(phase, nanos, Long::sum));
+                }
+            }
+        }
+        return totals;
+    }
+
+    private static void appendPhases(StringBuilder json, Map<String, Long> phaseNanos) {
+        json.append('{');
+        String separator = "";
+        for (Map.Entry<String, Long> phase : phaseNanos.entrySet()) {
+            json.append(separator).append(quote(phase.getKey())).append(": ").append(millis(phase.getValue()));
+            separator = ", ";
+        }
+        json.append('}');
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Statistics of a configuration file and the entities generated from it
+     */
+    public static final class ConfigFileReport {
+        private final String path;
+        private final List<EntityReport> entities = new ArrayList<>();
+        private boolean unchanged;
+
+        private ConfigFileReport(String path) {
+            this.path = path;
+        }
+
+        /**
+         * Add an entity read from this configuration file
+         */
+        public synchronized EntityReport addEntity(String entityName) {
+            EntityReport entity = new EntityReport(entityName);
+            entities.add(entity);
+            return entity;
+        }
+
+        /**
+         * Mark the configuration file as skipped because it is unchanged since the last generation
+         */
+        public synchronized void setUnchanged(boolean unchanged) {
+            this.unchanged = unchanged;
+        }
+
+        public synchronized boolean isUnchanged() {
+            return unchanged;
+        }
+
+        public synchronized List<EntityReport> getEntities() {
+            return new ArrayList<>(entities);
+        }
+
+        private void appendJson(StringBuilder json) {
+            json.append("    {\"path\": ").append(quote(path))
+                    .append(", \"unchanged\": ").append(isUnchanged())
+                    .append(", \"entities\": [");
+            String separator = "\n";
+            List<EntityReport> currentEntities = getEntities();
+            for (EntityReport entity : currentEntities) {
+                json.append(separator);
+                entity.appendJson(json);
+                separator = ",\n";
+            }
+            json.append(currentEntities.isEmpty() ? "]}" : "\n    ]}");
+        }
+    }
+
+    /**
+     * Timings and file statistics of a single entity
+     */
+    public static final class EntityReport {
+        private final String entityName;
+        private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        private int filesWritten;
+        private int filesUnchanged;
+        private int filesSkipped;
+        private long bytesWritten;
+
+        private EntityReport(String entityName) {
+            this.entityName = entityName;
+        }
+
+        /**
+         * Add time spent in a phase
+         */
+        public synchronized void addPhase(String phase, long nanos) {
+            phaseNanos.merge(phase, nanos, Long::sum);
+        }
+
+        /**
+         * Add the parse timings reported by the configuration parser
+         */
+        public void addParseTimings(YamlConfigParser.ParseTimings timings) {
+            addPhase("parse", timings.getParseNanos());
+            addPhase("modelBuild", timings.getModelBuildNanos());
+            addPhase("validate", timings.getValidationNanos());
+        }
+
+        /**
+         * Add the phases and file statistics of a generation run
+         */
+        public synchronized void addGeneration(CodeGenerator generator) {
+            generator.getPhaseNanos().forEach(this::addPhase);
+            filesWritten += generator.getWrittenFileCount();
+            filesUnchanged += generator.getUnchangedFileCount();
+            filesSkipped += generator.getSkippedFileCount();
+            bytesWritten += generator.getBytesWritten();
+        }
+
+        public String getEntityName() {
+            return entityName;
+        }
+
+        public synchronized Map<String, Long> getPhaseNanos() {
+            return new LinkedHashMap<>(phaseNanos);
+        }
+
+        public synchronized long getTotalNanos() {
+            long total = 0;
+            for (long nanos : phaseNanos.values()) {
+                total += nanos;
+            }
+            return total;
+        }
+
+        private synchronized void appendJson(StringBuilder json) {
+            json.append("      {\"entityName\": ").append(quote(entityName))
+                    .append(", \"totalMillis\": ").append(millis(getTotalNanos()))
+                    .append(", \"filesWritten\": ").append(filesWritten)
+                    .append(", \"filesUnchanged\": ").append(filesUnchanged)
+                    .append(", \"filesSkipped\": ").append(filesSkipped)
+                    .append(", \"bytesWritten\": ").append(bytesWritten)
+                    .append(", \"phases\": ");
+            appendPhases(json, phaseNanos);
+            json.append('}');
+        }
+    }
+
+    /**
+     * Sums over all entities
+     */
+    private static final class Totals {
+        private int entityCount;
+        private int unchangedConfigFileCount;
+        private int filesWritten;
+        private int filesUnchanged;
+        private int filesSkipped;
+        private long bytesWritten;
+        private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+    }
+}
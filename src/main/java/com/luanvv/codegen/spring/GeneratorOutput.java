@@ -0,0 +1,42 @@
+package com.luanvv.codegen.spring;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Where generators read existing files from and write generated files to.
+ *
+ * {@link FileSystemOutput} writes to disk; {@link InMemoryOutput} keeps written files in memory
+ * for tests and dry runs. Implementations must be safe to use from concurrently running generators.
+ */
+public interface GeneratorOutput {
+
+    /**
+     * Check whether a file exists
+     */
+    boolean exists(File file);
+
+    /**
+     * Read the content of an existing file
+     */
+    byte[] read(File file) throws IOException;
+
+    /**
+     * Write content to a file unless the file already has exactly this content
+     *
+     * @return true if the file was written, false if it was left untouched
+     */
+    boolean write(File file, byte[] content) throws IOException;
+
+    /**
+     * List the names of the files in a directory
+     *
+     * @return the file names, or null if the directory does not exist
+     */
+    String[] list(File directory);
+
+    /**
+     * Create a directory and its parents if they do not exist
+     */
+    void createDirectories(File directory);
+}
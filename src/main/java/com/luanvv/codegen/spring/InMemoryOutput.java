@@ -0,0 +1,86 @@
+package com.luanvv.codegen.spring;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Generator output kept in memory, on top of the files on disk.
+ *
+ * Reads see files written to this output first and fall back to the disk, so generators behave
+ * exactly as they would when writing to disk (existing files are skipped or compared), while the
+ * disk is never modified. Used for fast tests and to find out what a generation would change.
+ */
+public class InMemoryOutput implements GeneratorOutput {
+
+    private final ConcurrentMap<Path, byte[]> files = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean exists(File file) {
+        return files.containsKey(keyOf(file)) || file.exists();
+    }
+
+    @Override
+    public byte[] read(File file) throws IOException {
+        byte[] content = files.get(keyOf(file));
+        return content != null ? content.clone() : FileSystemOutput.INSTANCE.read(file);
+    }
+
+    @Override
+    public boolean write(File file, byte[] content) throws IOException {
+        Path key = keyOf(file);
+        byte[] current = files.get(key);
+        if (current == null && file.isFile()) {
+            current = FileSystemOutput.INSTANCE.read(file);
+        }
+        if (current != null && Arrays.equals(current, content)) {
+            return false;
+        }
+        files.put(key, content.clone());
+        return true;
+    }
+
+    @Override
+    public String[] list(File directory) {
+        Path directoryKey = keyOf(directory);
+        TreeSet<String> names = new TreeSet<>();
+        String[] diskNames = directory.list();
+        if (diskNames != null) {
+            names.addAll(Arrays.asList(diskNames));
+        }
+        for (Path path : files.keySet()) {
+            if (directoryKey.equals(path.getParent())) {
+                names.add(path.getFileName().toString());
+            }
+        }
+        return names.isEmpty() && diskNames == null ? null : names.toArray(new String[0]);
+    }
+
+    @Override
+    public void createDirectories(File directory) {
+        // Directories are implied by the files written
+    }
+
+    /**
+     * Get the files written to this output and their content, sorted by path
+     */
+    public SortedMap<File, byte[]> getWrittenFiles() {
+        SortedMap<File, byte[]> writtenFiles = new TreeMap<>();
+        for (Map.Entry<Path, byte[]> file : files.entrySet()) {
+            writtenFiles.put(file.getKey().toFile(), file.getValue().clone());
+        }
+        return Collections.unmodifiableSortedMap(writtenFiles);
+    }
+
+    private Path keyOf(File file) {
+        return file.getAbsoluteFile().toPath().normalize();
+    }
+}
@@ -0,0 +1,54 @@
+package com.luanvv.codegen.spring;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Messages of one configuration file with their severity, held back until the file is done
+ * so that files processed concurrently are logged in configuration order
+ */
+class LogMessages {
+
+    private final List<String> messages = new ArrayList<>();
+    private final List<Boolean> warnings = new ArrayList<>();
+
+    /**
+     * Add a progress message
+     */
+    void info(String message) {
+        messages.add(message);
+        warnings.add(false);
+    }
+
+    /**
+     * Add a warning, which is logged even when progress messages are filtered out
+     */
+    void warn(String message) {
+        messages.add(message);
+        warnings.add(true);
+    }
+
+    /**
+     * Log all messages at their severity
+     */
+    void writeTo(Log log) {
+        writeTo(log, false);
+    }
+
+    /**
+     * Log all messages, progress messages at debug level if requested
+     */
+    void writeTo(Log log, boolean progressAsDebug) {
+        for (int i = 0; i < messages.size(); i++) {
+            if (warnings.get(i)) {
+                log.warn(messages.get(i));
+            } else if (progressAsDebug) {
+                log.debug(messages.get(i));
+            } else {
+                log.info(messages.get(i));
+            }
+        }
+    }
+}
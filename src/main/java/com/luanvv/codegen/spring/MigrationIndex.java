@@ -0,0 +1,245 @@
+package com.luanvv.codegen.spring;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Index of the migration files in a migration directory, keyed by entity, and of the
+ * migrations creating the id sequences of entities switched to sequence ids.
+ *
+ * The directory is listed at most once per run and the index is persisted between builds
+ * together with the content hash of every migration file. When the directory has not been
+ * modified since the index was saved, the saved index is used without listing the directory.
+ * Lookups are constant time and safe to use from concurrently running generators.
+ */
+public class MigrationIndex {
+
+    private static final String CREATE_MARKER = "_Create_";
+    private static final String TABLE_SUFFIX = "_table.sql";
+    private static final String SEQUENCE_SUFFIX = "_sequence.sql";
+    private static final String SEQUENCE_KEY_PREFIX = "sequence:";
+    private static final String DIRECTORY_MODIFIED_KEY = "directory.lastModified";
+    private static final String FILE_PREFIX = "file.";
+
+    private final File migrationDirectory;
+    private final File indexFile;
+    private final GeneratorOutput output;
+    private final Map<String, Entry> entriesByKey = new HashMap<>();
+
+    /**
+     * Create an index of a migration directory, persisted in the given index file
+     * (or not persisted if the index file is null)
+     */
+    public MigrationIndex(File migrationDirectory, File indexFile) {
+        this(migrationDirectory, indexFile, FileSystemOutput.INSTANCE);
+    }
+
+    /**
+     * Create an index of a migration directory that reads migration files through the given output
+     */
+    public MigrationIndex(File migrationDirectory, File indexFile, GeneratorOutput output) {
+        this.migrationDirectory = migrationDirectory;
+        this.indexFile = indexFile;
+        this.output = output;
+    }
+
+    /**
+     * Load the saved index, listing the migration directory only if it changed since the index was saved
+     */
+    public synchronized void load() throws IOException {
+        entriesByKey.clear();
+        Properties saved = new Properties();
+        if (indexFile != null && indexFile.exists()) {
+            try (InputStream inputStream = Files.newInputStream(indexFile.toPath())) {
+                saved.load(inputStream);
+            }
+        }
+
+        long directoryModified = migrationDirectory.lastModified();
+        if (directoryModified != 0 && String.valueOf(directoryModified).equals(saved.getProperty(DIRECTORY_MODIFIED_KEY))) {
+            for (String name : saved.stringPropertyNames()) {
+                if (name.startsWith(FILE_PREFIX)) {
+                    addEntry(Entry.parse(new File(migrationDirectory, name.substring(FILE_PREFIX.length())),
+                            saved.getProperty(name)));
+                }
+            }
+            return;
+        }
+
+        String[] names = output.list(migrationDirectory);
+        if (names == null) {
+            return;
+        }
+        // Sorted so that the oldest migration of an entity wins, independent of the file system
+        Arrays.sort(names);
+        for (String name : names) {
+            if (keyOf(name) == null) {
+                continue;
+            }
+            File file = new File(migrationDirectory, name);
+            Entry entry = new Entry(file, file.length(), file.lastModified(), null);
+            String savedValue = saved.getProperty(FILE_PREFIX + name);
+            if (savedValue != null) {
+                Entry savedEntry = Entry.parse(file, savedValue);
+                if (savedEntry.isCurrent()) {
+                    entry = savedEntry;
+                }
+            }
+            addEntry(entry);
+        }
+    }
+
+    /**
+     * Save the index, including content hashes, for the next build
+     */
+    public synchronized void save() throws IOException {
+        if (indexFile == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty(DIRECTORY_MODIFIED_KEY, String.valueOf(migrationDirectory.lastModified()));
+        for (Entry entry : entriesByKey.values()) {
+            properties.setProperty(FILE_PREFIX + entry.file.getName(), entry.format());
+        }
+        File parent = indexFile.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (OutputStream outputStream = Files.newOutputStream(indexFile.toPath())) {
+            properties.store(outputStream, "Spring Boot code generator migration index");
+        }
+    }
+
+    /**
+     * Find the migration file of an entity
+     *
+     * @param entityNameSnakeCase the entity name in snake case, as used in migration file names
+     * @return the migration file, or null if the entity has no migration yet
+     */
+    public synchronized File find(String entityNameSnakeCase) {
+        Entry entry = entriesByKey.get(entityNameSnakeCase);
+        return entry != null ? entry.file : null;
+    }
+
+    /**
+     * Find the migration file creating an id sequence, named like V1__Create_users_seq_sequence.sql
+     *
+     * @return the migration file, or null if no such migration exists
+     */
+    public synchronized File findSequence(String sequenceName) {
+        Entry entry = entriesByKey.get(SEQUENCE_KEY_PREFIX + sequenceFileName(sequenceName));
+        return entry != null ? entry.file : null;
+    }
+
+    /**
+     * Get the part of a sequence migration file name identifying the sequence
+     */
+    static String sequenceFileName(String sequenceName) {
+        return sequenceName.replace('.', '_');
+    }
+
+    /**
+     * Get the suffix of the migration file name creating an id sequence, following the version:
+     * __Create_users_seq_sequence.sql
+     */
+    static String sequenceFileSuffix(String sequenceName) {
+        return "_" + CREATE_MARKER + sequenceFileName(sequenceName) + SEQUENCE_SUFFIX;
+    }
+
+    /**
+     * Get the content hash of the migration file of an entity, computing it if the file changed
+     *
+     * @return the hash, or null if the entity has no migration file
+     */
+    public synchronized String getContentHash(String entityNameSnakeCase) throws IOException {
+        Entry entry = entriesByKey.get(entityNameSnakeCase);
+        if (entry == null || !output.exists(entry.file)) {
+            return null;
+        }
+        if (entry.contentHash == null || !entry.isCurrent()) {
+            entry = new Entry(entry.file, entry.file.length(), entry.file.lastModified(),
+                    GenerationFingerprintStore.sha256(output.read(entry.file)));
+            entriesByKey.put(entityNameSnakeCase, entry);
+        }
+        return entry.contentHash;
+    }
+
+    /**
+     * Add a newly written migration file
+     */
+    public synchronized void add(File file, String contentHash) {
+        addEntry(new Entry(file, file.length(), file.lastModified(), contentHash));
+    }
+
+    private void addEntry(Entry entry) {
+        String key = keyOf(entry.file.getName());
+        if (key != null) {
+            entriesByKey.putIfAbsent(key, entry);
+        }
+    }
+
+    /**
+     * Get the key of a migration file name: the snake case entity name for a table migration
+     * such as V1__Create_user_table.sql, a prefixed sequence name for a sequence migration
+     * such as V2__Create_users_seq_sequence.sql, or null for other files
+     */
+    static String keyOf(String fileName) {
+        int markerIndex = fileName.indexOf(CREATE_MARKER);
+        if (markerIndex < 0) {
+            return null;
+        }
+        int start = markerIndex + CREATE_MARKER.length();
+        if (fileName.endsWith(TABLE_SUFFIX)) {
+            int end = fileName.length() - TABLE_SUFFIX.length();
+            return start < end ? fileName.substring(start, end) : null;
+        }
+        if (fileName.endsWith(SEQUENCE_SUFFIX)) {
+            int end = fileName.length() - SEQUENCE_SUFFIX.length();
+            return start < end ? SEQUENCE_KEY_PREFIX + fileName.substring(start, end) : null;
+        }
+        return null;
+    }
+
+    /**
+     * A migration file with the file attributes its content hash was computed for
+     */
+    private static final class Entry {
+        private final File file;
+        private final long size;
+        private final long lastModified;
+        private final String contentHash;
+
+        private Entry(File file, long size, long lastModified, String contentHash) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+        }
+
+        private boolean isCurrent() {
+            return file.length() == size && file.lastModified() == lastModified;
+        }
+
+        private String format() {
+            return size + "," + lastModified + "," + (contentHash != null ? contentHash : "");
+        }
+
+        private static Entry parse(File file, String value) {
+            String[] parts = value.split(",", -1);
+            try {
+                String hash = parts.length > 2 && !parts[2].isEmpty() ? parts[2] : null;
+                return new Entry(file, Long.parseLong(parts[0]), Long.parseLong(parts[1]), hash);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                // Corrupt entry: force the hash to be recomputed
+                return new Entry(file, -1, -1, null);
+            }
+        }
+    }
+}
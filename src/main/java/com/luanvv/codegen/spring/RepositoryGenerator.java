@@ -4,94 +4,91 @@ import com.squareup.javapoet.*;
 import javax.lang.model.element.Modifier;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 /**
  * Generator for Spring Data JPA Repository interfaces
  */
 public class RepositoryGenerator extends BaseGenerator {
 
+    private static final ClassName PAGEABLE = ClassName.get("org.springframework.data.domain", "Pageable");
+    private static final ClassName SLICE = ClassName.get("org.springframework.data.domain", "Slice");
+    private static final ClassName PAGE = ClassName.get("org.springframework.data.domain", "Page");
+    private static final ClassName QUERY = ClassName.get("org.springframework.data.jpa.repository", "Query");
+    private static final ClassName PARAM = ClassName.get("org.springframework.data.repository.query", "Param");
+    private static final ClassName MODIFYING = ClassName.get("org.springframework.data.jpa.repository", "Modifying");
+    private static final ClassName QUERY_HINTS = ClassName.get("org.springframework.data.jpa.repository", "QueryHints");
+    private static final ClassName QUERY_HINT = ClassName.get("jakarta.persistence", "QueryHint");
+
     public RepositoryGenerator(CodeGenConfig config, File outputDirectory) {
         super(config, outputDirectory);
+    }
+
+    public RepositoryGenerator(EntityModel model, File outputDirectory) {
+        super(model, outputDirectory);
     }    @Override
     public void generate() throws IOException {
         createPackageDirectory();
         
-        String repositoryName = config.getEntityName() + "Repository";
-        
-        // Determine the ID type from the first ID field
-        TypeName idType = getIdType();
+        String repositoryName = model.getRepositoryClass().simpleName();
+        TypeName idType = model.getIdType();
         
         // Create the repository interface
         TypeSpec.Builder repositoryBuilder = TypeSpec.interfaceBuilder(repositoryName)
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(ClassName.get("org.springframework.stereotype", "Repository"))                .addSuperinterface(ParameterizedTypeName.get(
                         ClassName.get("org.springframework.data.jpa.repository", "JpaRepository"),
-                        ClassName.get(config.getPackageName() + ".entity", config.getEntityName()),
+                        model.getEntityClass(),
                         idType
                 ));
 
         // Add custom query methods
         addCustomQueryMethods(repositoryBuilder);
 
+        // Add the records and queries of the views
+        for (EntityModel.ViewModel view : model.getViews()) {
+            generateViewRecord(view);
+            addViewQueryMethods(repositoryBuilder, view);
+        }
+
         // Build the Java file
         String repositoryPackage = config.getPackageName() + ".repository";
         JavaFile javaFile = JavaFile.builder(repositoryPackage, repositoryBuilder.build())
                 .build();        // Write to file
-        javaFile.writeTo(outputDirectory);
+        writeJavaFile(javaFile);
         
-        System.out.println("Generated Repository interface: " + repositoryName);
-    }
-
-    private TypeName getIdType() {
-        // Find the first ID field and return its type
-        for (CodeGenConfig.Field field : config.getFields()) {
-            if (config.getIdFields().contains(field.getName())) {
-                return getJavaType(field.getType());
-            }
-        }
-        return ClassName.get(Long.class); // Default to Long
-    }
-
-    private TypeName getJavaType(String type) {
-        switch (type) {
-            case "String":
-                return ClassName.get(String.class);
-            case "Long":
-                return ClassName.get(Long.class);
-            case "Integer":
-                return ClassName.get(Integer.class);
-            case "Boolean":
-                return ClassName.get(Boolean.class);
-            default:
-                return ClassName.get(String.class);
-        }
+        log("Generated Repository interface: " + repositoryName);
     }
 
     private void addCustomQueryMethods(TypeSpec.Builder repositoryBuilder) {
-        ClassName entityClass = ClassName.get(config.getPackageName() + ".entity", config.getEntityName());
+        ClassName entityClass = model.getEntityClass();
         
         // Add findBy methods for unique fields
-        for (CodeGenConfig.Field field : config.getFields()) {
-            if (!config.getIdFields().contains(field.getName()) && 
+        for (EntityModel.FieldModel field : model.getFields()) {
+            if (!field.isId() && 
                 ("String".equals(field.getType()) || "email".equals(field.getName()) || "username".equals(field.getName()))) {
                 
                 // Add findByFieldName method
-                MethodSpec findByMethod = MethodSpec.methodBuilder("findBy" + capitalize(field.getName()))
+                MethodSpec findByMethod = MethodSpec.methodBuilder("findBy" + field.getCapitalizedName())
                         .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
                         .returns(ParameterizedTypeName.get(ClassName.get(Optional.class), entityClass))
-                        .addParameter(getJavaType(field.getType()), field.getName())
+                        .addParameter(field.getJavaType(), field.getName())
                         .build();
                 
                 repositoryBuilder.addMethod(findByMethod);
 
                 // Add existsByFieldName method for unique fields
                 if ("email".equals(field.getName()) || "username".equals(field.getName())) {
-                    MethodSpec existsByMethod = MethodSpec.methodBuilder("existsBy" + capitalize(field.getName()))
+                    MethodSpec existsByMethod = MethodSpec.methodBuilder("existsBy" + field.getCapitalizedName())
                             .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
                             .returns(boolean.class)
-                            .addParameter(getJavaType(field.getType()), field.getName())
+                            .addParameter(field.getJavaType(), field.getName())
                             .build();
                     
                     repositoryBuilder.addMethod(existsByMethod);
@@ -100,8 +97,8 @@ public class RepositoryGenerator extends BaseGenerator {
         }
 
         // Add findAllByActive method if there's an active field
-        boolean hasActiveField = config.getFields().stream()
-                .anyMatch(field -> "active".equals(field.getName()) && "Boolean".equals(field.getType()));
+        EntityModel.FieldModel activeField = model.getField("active");
+        boolean hasActiveField = activeField != null && "Boolean".equals(activeField.getType());
         
         if (hasActiveField) {
             MethodSpec findAllByActiveMethod = MethodSpec.methodBuilder("findAllByActive")
@@ -112,5 +109,199 @@ public class RepositoryGenerator extends BaseGenerator {
             
             repositoryBuilder.addMethod(findAllByActiveMethod);
         }
+
+        // Delete with one statement instead of the find-then-remove of deleteById(id); the query
+        // matches the first id field, which would delete every row sharing it for a composite id
+        if (!model.hasCompositeId()) {
+            String idName = model.getIdFields().isEmpty() ? "id" : model.getIdFields().get(0).getName();
+            repositoryBuilder.addMethod(MethodSpec.methodBuilder("deleteRowById")
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .addJavadoc("Delete an entity with a single DELETE statement, without loading it first\n")
+                    .addJavadoc("\n@return the number of deleted rows, 0 if the entity does not exist\n")
+                    .addAnnotation(MODIFYING)
+                    .addAnnotation(AnnotationSpec.builder(QUERY)
+                            .addMember("value", "$S", "DELETE FROM " + config.getEntityName() + " e WHERE e." + idName + " = :id")
+                            .build())
+                    .returns(int.class)
+                    .addParameter(ParameterSpec.builder(model.getIdType(), "id")
+                            .addAnnotation(AnnotationSpec.builder(PARAM).addMember("value", "$S", "id").build())
+                            .build())
+                    .build());
+        }
+
+        // Slices are read without the count query of findAll(Pageable)
+        if (model.isSlicePagination()) {
+            repositoryBuilder.addMethod(MethodSpec.methodBuilder("findAllBy")
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .returns(ParameterizedTypeName.get(SLICE, entityClass))
+                    .addParameter(PAGEABLE, "pageable")
+                    .build());
+        }
+
+        if (model.isKeysetPaginated()) {
+            addKeysetQueryMethods(repositoryBuilder, entityClass);
+        }
+
+        if (model.isExported()) {
+            addStreamQueryMethod(repositoryBuilder, entityClass);
+        }
+    }
+
+    /**
+     * Write the record of a view. JavaPoet cannot emit records, so the source is rendered
+     * here; components are simple names of java.lang types or imported ones.
+     */
+    private void generateViewRecord(EntityModel.ViewModel view) throws IOException {
+        ClassName recordClass = view.getRecordClass();
+        Set<String> imports = new TreeSet<>();
+        StringJoiner components = new StringJoiner(", ");
+        for (EntityModel.FieldModel field : view.getFields()) {
+            ClassName type = (ClassName) field.getJavaType();
+            if (!"java.lang".equals(type.packageName())) {
+                imports.add(type.canonicalName());
+            }
+            components.add(type.simpleName() + " " + field.getName());
+        }
+
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(recordClass.packageName()).append(";\n\n");
+        for (String importName : imports) {
+            source.append("import ").append(importName).append(";\n");
+        }
+        if (!imports.isEmpty()) {
+            source.append('\n');
+        }
+        source.append("/**\n")
+                .append(" * ").append(view.getName()).append(" view of ").append(config.getEntityName())
+                .append(", selected by the ").append(view.getName()).append(" queries of ")
+                .append(model.getRepositoryClass().simpleName()).append("\n")
+                .append(" */\n")
+                .append("public record ").append(recordClass.simpleName()).append('(').append(components)
+                .append(") {\n}\n");
+
+        File packageDirectory = new File(outputDirectory, recordClass.packageName().replace('.', File.separatorChar));
+        output.createDirectories(packageDirectory);
+        writeFile(new File(packageDirectory, recordClass.simpleName() + ".java"),
+                source.toString().getBytes(StandardCharsets.UTF_8));
+        log("Generated View record: " + recordClass.simpleName());
+    }
+
+    /**
+     * Add the queries of a view. Constructor expressions select only the view's columns, and
+     * the records they create are not managed, so no dirty-checking snapshots are kept.
+     */
+    private void addViewQueryMethods(TypeSpec.Builder repositoryBuilder, EntityModel.ViewModel view) {
+        StringJoiner columns = new StringJoiner(", ");
+        view.getFields().forEach(field -> columns.add("e." + field.getName()));
+        String select = "SELECT new " + view.getRecordClass().canonicalName() + "(" + columns + ") FROM "
+                + config.getEntityName() + " e";
+        String idName = model.getIdFields().isEmpty() ? "id" : model.getIdFields().get(0).getName();
+        ClassName recordClass = view.getRecordClass();
+
+        repositoryBuilder.addMethod(MethodSpec.methodBuilder("findAllAs" + view.getCapitalizedName())
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addAnnotation(AnnotationSpec.builder(QUERY).addMember("value", "$S", select).build())
+                .returns(ParameterizedTypeName.get(ClassName.get(List.class), recordClass))
+                .build());
+
+        if (model.isPaginated()) {
+            AnnotationSpec.Builder pagedQuery = AnnotationSpec.builder(QUERY).addMember("value", "$S", select);
+            // Page counts are not derived from constructor expressions reliably
+            if (!model.isSlicePagination()) {
+                pagedQuery.addMember("countQuery", "$S", "SELECT COUNT(e) FROM " + config.getEntityName() + " e");
+            }
+            repositoryBuilder.addMethod(MethodSpec.methodBuilder("findAllAs" + view.getCapitalizedName())
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .addAnnotation(pagedQuery.build())
+                    .returns(ParameterizedTypeName.get(model.isSlicePagination() ? SLICE : PAGE, recordClass))
+                    .addParameter(PAGEABLE, "pageable")
+                    .build());
+        }
+
+        // Like deleteRowById, a lookup by the first id field is ambiguous for a composite id
+        if (!model.hasCompositeId()) {
+            repositoryBuilder.addMethod(MethodSpec.methodBuilder("findByIdAs" + view.getCapitalizedName())
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .addAnnotation(AnnotationSpec.builder(QUERY)
+                            .addMember("value", "$S", select + " WHERE e." + idName + " = :id")
+                            .build())
+                    .returns(ParameterizedTypeName.get(ClassName.get(Optional.class), recordClass))
+                    .addParameter(ParameterSpec.builder(model.getIdType(), "id")
+                            .addAnnotation(AnnotationSpec.builder(PARAM).addMember("value", "$S", "id").build())
+                            .build())
+                    .build());
+        }
+    }
+
+    /**
+     * Add a query streaming all entities through a JDBC cursor. The fetch size keeps the driver
+     * from reading the whole result set at once, and read-only entities are not snapshotted
+     * for dirty checking.
+     */
+    private void addStreamQueryMethod(TypeSpec.Builder repositoryBuilder, ClassName entityClass) {
+        StringBuilder query = new StringBuilder("SELECT e FROM " + config.getEntityName() + " e");
+        List<EntityModel.FieldModel> idFields = model.getIdFields();
+        for (int i = 0; i < idFields.size(); i++) {
+            query.append(i > 0 ? ", " : " ORDER BY ").append("e.").append(idFields.get(i).getName());
+        }
+        repositoryBuilder.addMethod(MethodSpec.methodBuilder("streamAllBy")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addJavadoc("Stream all entities; must be consumed and closed within a transaction\n")
+                .addAnnotation(AnnotationSpec.builder(QUERY_HINTS)
+                        .addMember("value", "$L", AnnotationSpec.builder(QUERY_HINT)
+                                .addMember("name", "$S", "org.hibernate.fetchSize")
+                                .addMember("value", "$S", String.valueOf(config.getExport().getFetchSize()))
+                                .build())
+                        .addMember("value", "$L", AnnotationSpec.builder(QUERY_HINT)
+                                .addMember("name", "$S", "org.hibernate.readOnly")
+                                .addMember("value", "$S", "true")
+                                .build())
+                        .build())
+                .addAnnotation(AnnotationSpec.builder(QUERY).addMember("value", "$S", query).build())
+                .returns(ParameterizedTypeName.get(ClassName.get(Stream.class), entityClass))
+                .build());
+    }
+
+    /**
+     * Add the seek queries of keyset pagination. The page after a cursor is selected with
+     * (k1 > :k1) OR (k1 = :k1 AND k2 > :k2) ..., which an index on the sort keys answers
+     * without reading the skipped rows.
+     */
+    private void addKeysetQueryMethods(TypeSpec.Builder repositoryBuilder, ClassName entityClass) {
+        List<EntityModel.FieldModel> sortKeys = model.getKeysetSortKeys();
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+        StringBuilder seek = new StringBuilder();
+        for (int i = 0; i < sortKeys.size(); i++) {
+            orderBy.append(i > 0 ? ", " : "").append("e.").append(sortKeys.get(i).getName());
+            seek.append(i > 0 ? " OR " : "").append('(');
+            for (int j = 0; j < i; j++) {
+                String name = sortKeys.get(j).getName();
+                seek.append("e.").append(name).append(" = :").append(name).append(" AND ");
+            }
+            String name = sortKeys.get(i).getName();
+            seek.append("e.").append(name).append(" > :").append(name).append(')');
+        }
+        String select = "SELECT e FROM " + config.getEntityName() + " e";
+        TypeName entityList = ParameterizedTypeName.get(ClassName.get(List.class), entityClass);
+
+        repositoryBuilder.addMethod(MethodSpec.methodBuilder("findKeysetFirstPage")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addAnnotation(AnnotationSpec.builder(QUERY).addMember("value", "$S", select + orderBy).build())
+                .returns(entityList)
+                .addParameter(PAGEABLE, "pageable")
+                .build());
+
+        MethodSpec.Builder pageAfter = MethodSpec.methodBuilder("findKeysetPageAfter")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addAnnotation(AnnotationSpec.builder(QUERY)
+                        .addMember("value", "$S", select + " WHERE " + seek + orderBy)
+                        .build())
+                .returns(entityList);
+        for (EntityModel.FieldModel sortKey : sortKeys) {
+            pageAfter.addParameter(ParameterSpec.builder(sortKey.getJavaType(), sortKey.getName())
+                    .addAnnotation(AnnotationSpec.builder(PARAM).addMember("value", "$S", sortKey.getName()).build())
+                    .build());
+        }
+        repositoryBuilder.addMethod(pageAfter.addParameter(PAGEABLE, "pageable").build());
     }
 }
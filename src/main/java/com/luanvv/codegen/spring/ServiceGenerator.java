@@ -4,16 +4,36 @@ import com.squareup.javapoet.*;
 import javax.lang.model.element.Modifier;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Generator for Service interface and implementation classes
  */
 public class ServiceGenerator extends BaseGenerator {
 
+    private static final ClassName PAGEABLE = ClassName.get("org.springframework.data.domain", "Pageable");
+    private static final ClassName TRANSACTIONAL =
+            ClassName.get("org.springframework.transaction.annotation", "Transactional");
+
+    // Set when a generated conversion calls the parseBoolean helper of the base implementation
+    private boolean parsesBooleans;
+
     public ServiceGenerator(CodeGenConfig config, File outputDirectory) {
         super(config, outputDirectory);
+    }
+
+    public ServiceGenerator(EntityModel model, File outputDirectory) {
+        super(model, outputDirectory);
     }    @Override
     public void generate() throws IOException {
         createPackageDirectory();
@@ -24,9 +44,9 @@ public class ServiceGenerator extends BaseGenerator {
     }
 
     private void generateServiceInterface() throws IOException {
-        String serviceName = config.getEntityName() + "Service";
-        ClassName entityClass = ClassName.get(config.getPackageName() + ".entity", config.getEntityName());
-        TypeName idType = getIdType();
+        String serviceName = model.getServiceClass().simpleName();
+        ClassName entityClass = model.getEntityClass();
+        TypeName idType = model.getIdType();
 
         // Create the service interface
         TypeSpec.Builder serviceBuilder = TypeSpec.interfaceBuilder(serviceName)
@@ -50,6 +70,41 @@ public class ServiceGenerator extends BaseGenerator {
                 .returns(ParameterizedTypeName.get(ClassName.get(List.class), entityClass))
                 .build());
 
+        if (model.isPaginated()) {
+            serviceBuilder.addMethod(MethodSpec.methodBuilder("findAll")
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .returns(getPageType(entityClass))
+                    .addParameter(PAGEABLE, "pageable")
+                    .build());
+        }
+
+        if (model.isKeysetPaginated()) {
+            serviceBuilder.addType(buildKeysetPageType(entityClass));
+            serviceBuilder.addMethod(MethodSpec.methodBuilder("findKeysetPage")
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .addJavadoc("Get the entities after a cursor returned with the previous page, or the first page when the cursor is null\n")
+                    .addJavadoc("\n@throws IllegalArgumentException if the cursor is invalid\n")
+                    .returns(model.getServiceClass().nestedClass("KeysetPage"))
+                    .addParameter(String.class, "after")
+                    .addParameter(int.class, "limit")
+                    .build());
+        }
+
+        if (model.isExported()) {
+            serviceBuilder.addMethod(MethodSpec.methodBuilder("exportAll")
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .addJavadoc("Pass all entities to an action one at a time, without loading them all into memory\n")
+                    .addParameter(ParameterizedTypeName.get(ClassName.get(Consumer.class),
+                            WildcardTypeName.supertypeOf(entityClass)), "action")
+                    .build());
+        }
+
+        for (EntityModel.ViewModel view : model.getViews()) {
+            for (MethodSpec.Builder method : buildViewMethods(view, idType)) {
+                serviceBuilder.addMethod(method.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT).build());
+            }
+        }
+
         serviceBuilder.addMethod(MethodSpec.methodBuilder("update")
                 .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
                 .returns(entityClass)
@@ -57,19 +112,64 @@ public class ServiceGenerator extends BaseGenerator {
                 .addParameter(entityClass, uncapitalize(config.getEntityName()))
                 .build());
 
+        // A bulk update by the first id field would update every row sharing it
+        if (!model.hasCompositeId()) {
+            serviceBuilder.addMethod(MethodSpec.methodBuilder("patch")
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .addJavadoc("Update only the given fields, by field name, in a single UPDATE statement.\n")
+                    .addJavadoc("The statement bypasses the persistence context: it neither checks nor increments a\n")
+                    .addJavadoc("{@code @Version} (no optimistic locking), runs no entity listeners or Bean Validation,\n")
+                    .addJavadoc("leaves loaded instances stale and makes Hibernate evict the entity's second-level cache region.\n")
+                    .addJavadoc("\n@return the number of updated rows, 0 if the entity does not exist\n")
+                    .addJavadoc("@throws IllegalArgumentException if a field is unknown, an id or has an invalid value\n")
+                    .returns(int.class)
+                    .addParameter(idType, "id")
+                    .addParameter(ParameterizedTypeName.get(Map.class, String.class, Object.class), "changes")
+                    .build());
+        }
+
         serviceBuilder.addMethod(MethodSpec.methodBuilder("deleteById")
                 .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
-                .returns(void.class)
+                .addJavadoc("Delete an entity by id\n")
+                .addJavadoc("\n@return the number of deleted rows, 0 if the entity does not exist\n")
+                .returns(int.class)
                 .addParameter(idType, "id")
                 .build());
 
+        if (model.isBatched()) {
+            TypeName entityList = ParameterizedTypeName.get(ClassName.get(List.class), entityClass);
+            serviceBuilder.addType(buildNotFoundExceptionType(idType));
+            serviceBuilder.addMethod(MethodSpec.methodBuilder("createAll")
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .addJavadoc("Create entities in chunks of one transaction each; a failure rolls back only its chunk,\n")
+                    .addJavadoc("and the chunks before it stay committed\n")
+                    .returns(entityList)
+                    .addParameter(entityList, "entities")
+                    .build());
+            serviceBuilder.addMethod(MethodSpec.methodBuilder("updateAll")
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .addJavadoc("Update entities in chunks of one transaction each; a failure rolls back only its chunk,\n")
+                    .addJavadoc("and the chunks before it stay committed\n")
+                    .addJavadoc("\n@throws NotFoundException if an entity does not exist\n")
+                    .returns(entityList)
+                    .addParameter(entityList, "entities")
+                    .build());
+            serviceBuilder.addMethod(MethodSpec.methodBuilder("deleteAllById")
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .addJavadoc("Delete entities in chunks of one transaction and one statement each; a failure rolls back\n")
+                    .addJavadoc("only its chunk, and the chunks before it stay committed\n")
+                    .returns(void.class)
+                    .addParameter(ParameterizedTypeName.get(ClassName.get(List.class), idType), "ids")
+                    .build());
+        }
+
         // Add custom methods for unique fields
-        for (CodeGenConfig.Field field : config.getFields()) {
+        for (EntityModel.FieldModel field : model.getFields()) {
             if ("email".equals(field.getName()) || "username".equals(field.getName())) {
-                serviceBuilder.addMethod(MethodSpec.methodBuilder("findBy" + capitalize(field.getName()))
+                serviceBuilder.addMethod(MethodSpec.methodBuilder("findBy" + field.getCapitalizedName())
                         .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
                         .returns(ParameterizedTypeName.get(ClassName.get(Optional.class), entityClass))
-                        .addParameter(getJavaType(field.getType()), field.getName())
+                        .addParameter(field.getJavaType(), field.getName())
                         .build());            }
         }
 
@@ -79,21 +179,20 @@ public class ServiceGenerator extends BaseGenerator {
                 .build();
 
         // Write to file
-        javaFile.writeTo(outputDirectory);
+        writeJavaFile(javaFile);
         
-        System.out.println("Generated Service interface: " + serviceName);
+        log("Generated Service interface: " + serviceName);
     }
 
     private void generateBaseServiceImplementation() throws IOException {
-        String serviceName = config.getEntityName() + "Service";
-        String baseServiceImplName = "Base" + config.getEntityName() + "ServiceImpl";
-        String repositoryName = config.getEntityName() + "Repository";
-        String baseServicePackage = config.getPackageName() + ".service.base";
+        String baseServiceImplName = model.getBaseServiceImplClass().simpleName();
+        String repositoryName = model.getRepositoryClass().simpleName();
+        String baseServicePackage = model.getBaseServiceImplClass().packageName();
         
-        ClassName entityClass = ClassName.get(config.getPackageName() + ".entity", config.getEntityName());
-        ClassName serviceInterface = ClassName.get(config.getPackageName() + ".service", serviceName);
-        ClassName repositoryClass = ClassName.get(config.getPackageName() + ".repository", repositoryName);
-        TypeName idType = getIdType();        // Create the base service implementation class (abstract)
+        ClassName entityClass = model.getEntityClass();
+        ClassName serviceInterface = model.getServiceClass();
+        ClassName repositoryClass = model.getRepositoryClass();
+        TypeName idType = model.getIdType();        // Create the base service implementation class (abstract)
         TypeSpec.Builder baseServiceImplBuilder = TypeSpec.classBuilder(baseServiceImplName)
                 .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
                 .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.transaction.annotation", "Transactional"))
@@ -123,6 +222,12 @@ public class ServiceGenerator extends BaseGenerator {
                 .build();
         baseServiceImplBuilder.addField(repositoryField);
 
+        // Entity manager of the current transaction, for bulk updates, detaching and flushing
+        baseServiceImplBuilder.addField(FieldSpec.builder(ClassName.get("jakarta.persistence", "EntityManager"),
+                        "entityManager", Modifier.PRIVATE)
+                .addAnnotation(ClassName.get("jakarta.persistence", "PersistenceContext"))
+                .build());
+
         // Add constructor
         baseServiceImplBuilder.addMethod(MethodSpec.constructorBuilder()
                 .addModifiers(Modifier.PUBLIC)
@@ -136,26 +241,24 @@ public class ServiceGenerator extends BaseGenerator {
         // Create base package directory
         String basePackagePath = config.getPackageName().replace('.', File.separatorChar) + File.separatorChar + "service" + File.separatorChar + "base";
         File basePackageDir = new File(outputDirectory, basePackagePath);
-        if (!basePackageDir.exists()) {
-            basePackageDir.mkdirs();
-        }
+        output.createDirectories(basePackageDir);
 
         // Build the Java file
         JavaFile javaFile = JavaFile.builder(baseServicePackage, baseServiceImplBuilder.build())
                 .build();
 
         // Write to file (always regenerate base classes)
-        javaFile.writeTo(outputDirectory);
+        writeJavaFile(javaFile);
         
-        System.out.println("Generated Base Service implementation: " + baseServiceImplName);
+        log("Generated Base Service implementation: " + baseServiceImplName);
     }    private void generateExtensibleServiceImplementation() throws IOException {
-        String serviceImplName = config.getEntityName() + "ServiceImpl";
-        String baseServiceImplName = "Base" + config.getEntityName() + "ServiceImpl";
-        String repositoryName = config.getEntityName() + "Repository";
-        String servicePackage = config.getPackageName() + ".service";
+        String serviceImplName = model.getServiceImplClass().simpleName();
+        String baseServiceImplName = model.getBaseServiceImplClass().simpleName();
+        String repositoryName = model.getRepositoryClass().simpleName();
+        String servicePackage = model.getServiceImplClass().packageName();
         
-        ClassName baseServiceClass = ClassName.get(config.getPackageName() + ".service.base", baseServiceImplName);
-        ClassName repositoryClass = ClassName.get(config.getPackageName() + ".repository", repositoryName);
+        ClassName baseServiceClass = model.getBaseServiceImplClass();
+        ClassName repositoryClass = model.getRepositoryClass();
 
         // Check if we should skip generation of the extensible implementation
         File targetFile = getTargetFile(serviceImplName, "service");
@@ -228,8 +331,8 @@ public class ServiceGenerator extends BaseGenerator {
                 .build();
 
         // Write to file
-        javaFile.writeTo(outputDirectory);
-          System.out.println("Generated Service implementation: " + serviceImplName);
+        writeJavaFile(javaFile);
+          log("Generated Service implementation: " + serviceImplName);
     }    private void addCrudMethods(TypeSpec.Builder serviceImplBuilder, ClassName entityClass, TypeName idType, String repositoryName) {
         String entityVar = uncapitalize(config.getEntityName());
         String repositoryVar = uncapitalize(repositoryName);
@@ -261,7 +364,40 @@ public class ServiceGenerator extends BaseGenerator {
                 .addAnnotation(Override.class)
                 .returns(ParameterizedTypeName.get(ClassName.get(List.class), entityClass))
                 .addStatement("return $N.findAll()", repositoryVar)
-                .build());        // Update method - write operation, override readOnly=true
+                .build());
+
+        // FindAll method for a single page
+        if (model.isPaginated()) {
+            serviceImplBuilder.addMethod(MethodSpec.methodBuilder("findAll")
+                    .addModifiers(Modifier.PUBLIC)
+                    .addAnnotation(Override.class)
+                    .returns(getPageType(entityClass))
+                    .addParameter(PAGEABLE, "pageable")
+                    .addStatement("return $N.$L(pageable)", repositoryVar,
+                            model.isSlicePagination() ? "findAllBy" : "findAll")
+                    .build());
+        }        if (model.isKeysetPaginated()) {
+            addKeysetMethods(serviceImplBuilder, entityClass, repositoryVar);
+        }
+
+        if (model.isExported()) {
+            addExportMethod(serviceImplBuilder, entityClass, repositoryVar);
+        }
+
+        // View methods select only the columns of the view
+        for (EntityModel.ViewModel view : model.getViews()) {
+            for (MethodSpec.Builder method : buildViewMethods(view, idType)) {
+                MethodSpec signature = method.build();
+                StringJoiner arguments = new StringJoiner(", ");
+                signature.parameters.forEach(parameter -> arguments.add(parameter.name));
+                serviceImplBuilder.addMethod(method.addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .addStatement("return $N.$N($L)", repositoryVar, signature.name, arguments.toString())
+                        .build());
+            }
+        }
+
+        // Update method - write operation, override readOnly=true
         serviceImplBuilder.addMethod(MethodSpec.methodBuilder("update")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(Override.class)
@@ -275,66 +411,473 @@ public class ServiceGenerator extends BaseGenerator {
                         entityClass, repositoryVar, RuntimeException.class, config.getEntityName())
                 .addCode(generateUpdateCode(entityVar))
                 .addStatement("return $N.save(existing)", repositoryVar)
-                .build());        // DeleteById method - write operation, override readOnly=true
+                .build());
+
+        // Patch method - write operation, a bulk update of the supplied fields only
+        if (!model.hasCompositeId()) {
+            serviceImplBuilder.addMethod(buildPatchMethod(entityClass, idType, repositoryVar));
+        }
+
+        // DeleteById method - write operation, override readOnly=true
         serviceImplBuilder.addMethod(MethodSpec.methodBuilder("deleteById")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(Override.class)
                 .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.transaction.annotation", "Transactional"))
                         .addMember("readOnly", "false")
                         .build())
-                .returns(void.class)
+                .returns(int.class)
                 .addParameter(idType, "id")
-                .addStatement("$N.deleteById(id)", repositoryVar)
+                .addCode(buildDeleteByIdCode(repositoryVar))
                 .build());
 
+        if (model.isBatched()) {
+            addBatchMethods(serviceImplBuilder, entityClass, idType, repositoryVar);
+        }
+
         // Add custom methods for unique fields
-        for (CodeGenConfig.Field field : config.getFields()) {
+        for (EntityModel.FieldModel field : model.getFields()) {
             if ("email".equals(field.getName()) || "username".equals(field.getName())) {
-                serviceImplBuilder.addMethod(MethodSpec.methodBuilder("findBy" + capitalize(field.getName()))
+                serviceImplBuilder.addMethod(MethodSpec.methodBuilder("findBy" + field.getCapitalizedName())
                         .addModifiers(Modifier.PUBLIC)
                         .addAnnotation(Override.class)
                         .returns(ParameterizedTypeName.get(ClassName.get(Optional.class), entityClass))
-                        .addParameter(getJavaType(field.getType()), field.getName())
-                        .addStatement("return $N.findBy$L($N)", repositoryVar, capitalize(field.getName()), field.getName())
+                        .addParameter(field.getJavaType(), field.getName())
+                        .addStatement("return $N.findBy$L($N)", repositoryVar, field.getCapitalizedName(), field.getName())
                         .build());
             }
         }
+
+        if (parsesBooleans) {
+            serviceImplBuilder.addMethod(buildParseBooleanMethod());
+        }
     }
 
-    private CodeBlock generateUpdateCode(String entityVar) {
-        CodeBlock.Builder codeBuilder = CodeBlock.builder();
-        
-        for (CodeGenConfig.Field field : config.getFields()) {
-            if (!config.getIdFields().contains(field.getName())) {
-                codeBuilder.addStatement("existing.set$L($N.get$L())", 
-                        capitalize(field.getName()), entityVar, capitalize(field.getName()));
-            }
+    /**
+     * Build an expression converting a String expression to the Java type of a field. Booleans
+     * are parsed strictly, since Boolean.valueOf turns any value other than "true" into false.
+     */
+    private CodeBlock convertFromString(EntityModel.FieldModel field, String expression) {
+        if ("Boolean".equals(field.getType())) {
+            parsesBooleans = true;
+            return CodeBlock.of("parseBoolean($L)", expression);
         }
-        
-        return codeBuilder.build();
+        return fromString(field, expression);
+    }
+
+    private MethodSpec buildParseBooleanMethod() {
+        return MethodSpec.methodBuilder("parseBoolean")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(Boolean.class)
+                .addParameter(String.class, "value")
+                .beginControlFlow("if ($S.equalsIgnoreCase(value))", "true")
+                .addStatement("return $T.TRUE", Boolean.class)
+                .endControlFlow()
+                .beginControlFlow("if ($S.equalsIgnoreCase(value))", "false")
+                .addStatement("return $T.FALSE", Boolean.class)
+                .endControlFlow()
+                .addStatement("throw new $T(\"Invalid boolean: \" + value)", IllegalArgumentException.class)
+                .build();
     }
 
-    private TypeName getIdType() {
-        for (CodeGenConfig.Field field : config.getFields()) {
-            if (config.getIdFields().contains(field.getName())) {
-                return getJavaType(field.getType());
+    /**
+     * Delete with the counting DELETE query, or for a composite id, which that query cannot
+     * match, with Spring Data's deleteById after checking that the entity exists
+     */
+    private CodeBlock buildDeleteByIdCode(String repositoryVar) {
+        if (!model.hasCompositeId()) {
+            return CodeBlock.builder().addStatement("return $N.deleteRowById(id)", repositoryVar).build();
+        }
+        return CodeBlock.builder()
+                .beginControlFlow("if (!$N.existsById(id))", repositoryVar)
+                .addStatement("return 0")
+                .endControlFlow()
+                .addStatement("$N.deleteById(id)", repositoryVar)
+                .addStatement("return 1")
+                .build();
+    }
+
+    /**
+     * Build the patch method. The supplied fields are set with a Criteria bulk update, so the
+     * entity is neither loaded nor written as a whole row; values are converted from their
+     * JSON form (e.g. LocalDateTime from ISO strings), and invalid values such as a Boolean
+     * "yes" are rejected. Only generated for single-field ids.
+     */
+    private MethodSpec buildPatchMethod(ClassName entityClass, TypeName idType, String repositoryVar) {
+        ClassName criteriaBuilder = ClassName.get("jakarta.persistence.criteria", "CriteriaBuilder");
+        ClassName criteriaUpdate = ClassName.get("jakarta.persistence.criteria", "CriteriaUpdate");
+        ClassName root = ClassName.get("jakarta.persistence.criteria", "Root");
+        String idName = model.getIdFields().isEmpty() ? "id" : model.getIdFields().get(0).getName();
+        boolean hasDateFields = false;
+
+        MethodSpec.Builder method = MethodSpec.methodBuilder("patch")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .addAnnotation(AnnotationSpec.builder(TRANSACTIONAL).addMember("readOnly", "false").build())
+                .returns(int.class)
+                .addParameter(idType, "id")
+                .addParameter(ParameterizedTypeName.get(Map.class, String.class, Object.class), "changes")
+                .beginControlFlow("if (changes.isEmpty())")
+                .addStatement("return $N.existsById(id) ? 1 : 0", repositoryVar)
+                .endControlFlow()
+                .addStatement("$T builder = entityManager.getCriteriaBuilder()", criteriaBuilder)
+                .addStatement("$T<$T> update = builder.createCriteriaUpdate($T.class)", criteriaUpdate, entityClass, entityClass)
+                .addStatement("$T<$T> root = update.from($T.class)", root, entityClass, entityClass)
+                .beginControlFlow("for ($T<String, Object> change : changes.entrySet())", Map.Entry.class)
+                .addStatement("Object value = change.getValue()")
+                .beginControlFlow("try")
+                .beginControlFlow("switch (change.getKey())");
+        for (EntityModel.FieldModel field : model.getFields()) {
+            if (field.isId()) {
+                continue;
+            }
+            hasDateFields |= "LocalDateTime".equals(field.getType());
+            CodeBlock converted = "String".equals(field.getType())
+                    ? CodeBlock.of("$T.valueOf(value)", String.class)
+                    : convertFromString(field, "String.valueOf(value)");
+            method.addCode("case $S:\n$>", field.getName());
+            if (field.getField().isNullable()) {
+                method.addStatement("update.set(root.<$T>get($S), value != null ? $L : null)",
+                        field.getJavaType(), field.getName(), converted);
+            } else {
+                method.beginControlFlow("if (value == null)")
+                        .addStatement("throw new $T(\"Field '$L' must not be null\")", IllegalArgumentException.class, field.getName())
+                        .endControlFlow()
+                        .addStatement("update.set(root.<$T>get($S), $L)", field.getJavaType(), field.getName(), converted);
             }
+            method.addStatement("break").addCode("$<");
+        }
+        method.addCode("default:\n$>")
+                .addStatement("throw new $T(\"Field '\" + change.getKey() + \"' cannot be patched\")", IllegalArgumentException.class)
+                .addCode("$<")
+                .endControlFlow();
+        if (hasDateFields) {
+            method.nextControlFlow("catch ($T e)", ClassName.get("java.time", "DateTimeException"))
+                    .addStatement("throw new $T(\"Invalid value for field '\" + change.getKey() + \"'\", e)",
+                            IllegalArgumentException.class);
+        }
+        return method.endControlFlow()
+                .endControlFlow()
+                .addStatement("update.where(builder.equal(root.get($S), id))", idName)
+                .addStatement("return entityManager.createQuery(update).executeUpdate()")
+                .build();
+    }
+
+    /**
+     * Build the signatures of the methods reading a view: all rows, a page of rows when the
+     * entity is paginated, and a single row by id unless the id is composite
+     */
+    private List<MethodSpec.Builder> buildViewMethods(EntityModel.ViewModel view, TypeName idType) {
+        ClassName recordClass = view.getRecordClass();
+        List<MethodSpec.Builder> methods = new ArrayList<>();
+        methods.add(MethodSpec.methodBuilder("findAllAs" + view.getCapitalizedName())
+                .returns(ParameterizedTypeName.get(ClassName.get(List.class), recordClass)));
+        if (model.isPaginated()) {
+            methods.add(MethodSpec.methodBuilder("findAllAs" + view.getCapitalizedName())
+                    .returns(getPageType(recordClass))
+                    .addParameter(PAGEABLE, "pageable"));
+        }
+        if (!model.hasCompositeId()) {
+            methods.add(MethodSpec.methodBuilder("findByIdAs" + view.getCapitalizedName())
+                    .returns(ParameterizedTypeName.get(ClassName.get(Optional.class), recordClass))
+                    .addParameter(idType, "id"));
         }
-        return ClassName.get(Long.class);
+        return methods;
     }
 
-    private TypeName getJavaType(String type) {
-        switch (type) {
-            case "String":
-                return ClassName.get(String.class);
-            case "Long":
-                return ClassName.get(Long.class);
-            case "Integer":
-                return ClassName.get(Integer.class);
-            case "Boolean":
-                return ClassName.get(Boolean.class);
-            default:
-                return ClassName.get(String.class);
+    /**
+     * Add the export method, which streams the entities in one read-only transaction and
+     * detaches each entity once the action is done with it, so that the persistence
+     * context does not grow with the table
+     */
+    private void addExportMethod(TypeSpec.Builder serviceImplBuilder, ClassName entityClass, String repositoryVar) {
+        String entityVar = uncapitalize(config.getEntityName());
+        serviceImplBuilder.addMethod(MethodSpec.methodBuilder("exportAll")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .addAnnotation(AnnotationSpec.builder(TRANSACTIONAL).addMember("readOnly", "true").build())
+                .addParameter(ParameterizedTypeName.get(ClassName.get(Consumer.class),
+                        WildcardTypeName.supertypeOf(entityClass)), "action")
+                .beginControlFlow("try ($T<$T> entities = $N.streamAllBy())", Stream.class, entityClass, repositoryVar)
+                .addCode("entities.forEach($N -> {\n$>", entityVar)
+                .addStatement("action.accept($N)", entityVar)
+                .addStatement("entityManager.detach($N)", entityVar)
+                .addCode("$<});\n")
+                .endControlFlow()
+                .build());
+    }
+
+    /**
+     * Add the batch write methods. Each chunk of BATCH_SIZE entities is written in a transaction
+     * of its own, so transactions stay short however large the request is, and the persistence
+     * context is flushed and cleared after each chunk so that its statements go out as JDBC
+     * batches and its entities are released. The methods themselves run outside a transaction.
+     */
+    private void addBatchMethods(TypeSpec.Builder serviceImplBuilder, ClassName entityClass, TypeName idType,
+                                 String repositoryVar) {
+        ClassName transactionTemplate = ClassName.get("org.springframework.transaction.support", "TransactionTemplate");
+        ClassName transactionManager = ClassName.get("org.springframework.transaction", "PlatformTransactionManager");
+        TypeName entityList = ParameterizedTypeName.get(ClassName.get(List.class), entityClass);
+        AnnotationSpec notSupported = AnnotationSpec.builder(TRANSACTIONAL)
+                .addMember("propagation", "$T.NOT_SUPPORTED",
+                        ClassName.get("org.springframework.transaction.annotation", "Propagation"))
+                .build();
+        String entityVar = uncapitalize(config.getEntityName());
+        String idGetter = "get" + model.getIdFields().get(0).getCapitalizedName();
+
+        serviceImplBuilder.addField(FieldSpec.builder(int.class, "BATCH_SIZE",
+                        Modifier.PROTECTED, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", config.getBatch().getSize())
+                .build());
+        serviceImplBuilder.addField(transactionTemplate, "batchTransaction", Modifier.PRIVATE);
+        // Set by a setter so that the constructors of existing service implementations stay unchanged
+        serviceImplBuilder.addMethod(MethodSpec.methodBuilder("setTransactionManager")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(ClassName.get("org.springframework.beans.factory.annotation", "Autowired"))
+                .addParameter(transactionManager, "transactionManager")
+                .addStatement("this.batchTransaction = new $T(transactionManager)", transactionTemplate)
+                .build());
+
+        serviceImplBuilder.addMethod(MethodSpec.methodBuilder("createAll")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .addAnnotation(notSupported)
+                .returns(entityList)
+                .addParameter(entityList, "entities")
+                .addStatement("$T created = new $T<>(entities.size())", entityList, ArrayList.class)
+                .beginControlFlow("for (int start = 0; start < entities.size(); start += BATCH_SIZE)")
+                .addStatement("$T chunk = entities.subList(start, $T.min(start + BATCH_SIZE, entities.size()))",
+                        entityList, Math.class)
+                .addCode("batchTransaction.executeWithoutResult(status -> {\n$>")
+                .addStatement("created.addAll($N.saveAll(chunk))", repositoryVar)
+                .addStatement("flushAndClear()")
+                .addCode("$<});\n")
+                .endControlFlow()
+                .addStatement("return created")
+                .build());
+
+        serviceImplBuilder.addMethod(MethodSpec.methodBuilder("updateAll")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .addAnnotation(notSupported)
+                .returns(entityList)
+                .addParameter(entityList, "entities")
+                .addStatement("$T updated = new $T<>(entities.size())", entityList, ArrayList.class)
+                .beginControlFlow("for (int start = 0; start < entities.size(); start += BATCH_SIZE)")
+                .addStatement("$T chunk = entities.subList(start, $T.min(start + BATCH_SIZE, entities.size()))",
+                        entityList, Math.class)
+                .addStatement("int committed = start")
+                .addCode("batchTransaction.executeWithoutResult(status -> {\n$>")
+                .addComment("One query loads the chunk; the changes are written as batched updates on flush")
+                .addStatement("$T<$T, $T> existingById = new $T<>()", Map.class, idType, entityClass, HashMap.class)
+                .beginControlFlow("for ($T existing : $N.findAllById(chunk.stream().map($T::$L).filter($T::nonNull).toList()))",
+                        entityClass, repositoryVar, entityClass, idGetter, Objects.class)
+                .addStatement("existingById.put(existing.$L(), existing)", idGetter)
+                .endControlFlow()
+                .beginControlFlow("for ($T $N : chunk)", entityClass, entityVar)
+                .addStatement("$T existing = existingById.get($N.$L())", entityClass, entityVar, idGetter)
+                .beginControlFlow("if (existing == null)")
+                .addStatement("throw new $T($N.$L(), committed)", model.getServiceClass().nestedClass("NotFoundException"),
+                        entityVar, idGetter)
+                .endControlFlow()
+                .addCode(generateUpdateCode(entityVar))
+                .addStatement("updated.add(existing)")
+                .endControlFlow()
+                .addStatement("flushAndClear()")
+                .addCode("$<});\n")
+                .endControlFlow()
+                .addStatement("return updated")
+                .build());
+
+        serviceImplBuilder.addMethod(MethodSpec.methodBuilder("deleteAllById")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .addAnnotation(notSupported)
+                .returns(void.class)
+                .addParameter(ParameterizedTypeName.get(ClassName.get(List.class), idType), "ids")
+                .beginControlFlow("for (int start = 0; start < ids.size(); start += BATCH_SIZE)")
+                .addStatement("$T chunk = ids.subList(start, $T.min(start + BATCH_SIZE, ids.size()))",
+                        ParameterizedTypeName.get(ClassName.get(List.class), idType), Math.class)
+                .addCode("batchTransaction.executeWithoutResult(status -> {\n$>")
+                .addComment("A single DELETE ... WHERE id IN (...) per chunk, bypassing the persistence context")
+                .addStatement("$N.deleteAllByIdInBatch(chunk)", repositoryVar)
+                .addStatement("flushAndClear()")
+                .addCode("$<});\n")
+                .endControlFlow()
+                .build());
+
+        serviceImplBuilder.addMethod(MethodSpec.methodBuilder("flushAndClear")
+                .addModifiers(Modifier.PRIVATE)
+                .addJavadoc("Write the pending statements of a chunk and release its entities\n")
+                .addStatement("entityManager.flush()")
+                .addStatement("entityManager.clear()")
+                .build());
+    }
+
+    /**
+     * Exception of a batch update naming an entity that does not exist, nested in the service
+     * interface. It tells how many entities of earlier chunks were already committed.
+     */
+    private TypeSpec buildNotFoundExceptionType(TypeName idType) {
+        return TypeSpec.classBuilder("NotFoundException")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .superclass(RuntimeException.class)
+                .addJavadoc("Thrown by a batch write when an entity does not exist. Only the chunk holding it is rolled\n")
+                .addJavadoc("back; the first {@link #getCommittedCount()} entities were already written.\n")
+                .addField(idType.box(), "id", Modifier.PRIVATE, Modifier.FINAL)
+                .addField(int.class, "committedCount", Modifier.PRIVATE, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(idType.box(), "id")
+                        .addParameter(int.class, "committedCount")
+                        .addStatement("super($S + id + $S + committedCount + $S)", config.getEntityName() + " not found with id: ",
+                                "; ", " entities of earlier chunks were already written")
+                        .addStatement("this.id = id")
+                        .addStatement("this.committedCount = committedCount")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getId")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(idType.box())
+                        .addStatement("return id")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getCommittedCount")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(int.class)
+                        .addStatement("return committedCount")
+                        .build())
+                .build();
+    }
+
+    /**
+     * Page of keyset pagination, nested in the service interface
+     */
+    private TypeSpec buildKeysetPageType(ClassName entityClass) {
+        TypeName entityList = ParameterizedTypeName.get(ClassName.get(List.class), entityClass);
+        return TypeSpec.classBuilder("KeysetPage")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .addJavadoc("One page of entities and the cursor of the next page (null on the last page)\n")
+                .addField(entityList, "items", Modifier.PRIVATE, Modifier.FINAL)
+                .addField(String.class, "nextCursor", Modifier.PRIVATE, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(entityList, "items")
+                        .addParameter(String.class, "nextCursor")
+                        .addStatement("this.items = items")
+                        .addStatement("this.nextCursor = nextCursor")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getItems")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(entityList)
+                        .addStatement("return items")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getNextCursor")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(String.class)
+                        .addStatement("return nextCursor")
+                        .build())
+                .build();
+    }
+
+    /**
+     * Add the keyset page method and the encoding of its opaque cursor, which holds the
+     * sort keys of the last entity of a page
+     */
+    private void addKeysetMethods(TypeSpec.Builder serviceImplBuilder, ClassName entityClass, String repositoryVar) {
+        List<EntityModel.FieldModel> sortKeys = model.getKeysetSortKeys();
+        ClassName keysetPage = model.getServiceClass().nestedClass("KeysetPage");
+
+        MethodSpec.Builder method = MethodSpec.methodBuilder("findKeysetPage")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .returns(keysetPage)
+                .addParameter(String.class, "after")
+                .addParameter(int.class, "limit")
+                .addComment("One extra entity tells whether there is a next page")
+                .addStatement("$T request = $T.ofSize(limit + 1)", PAGEABLE,
+                        ClassName.get("org.springframework.data.domain", "PageRequest"))
+                .addStatement("$T<$T> items", List.class, entityClass)
+                .beginControlFlow("if (after == null || after.isEmpty())")
+                .addStatement("items = $N.findKeysetFirstPage(request)", repositoryVar)
+                .nextControlFlow("else")
+                .addStatement("String[] cursor = decodeCursor(after, $L)", sortKeys.size());
+        for (EntityModel.FieldModel sortKey : sortKeys) {
+            method.addStatement("$T $N", sortKey.getJavaType(), sortKey.getName());
         }
+        method.beginControlFlow("try");
+        CodeBlock.Builder arguments = CodeBlock.builder();
+        for (int i = 0; i < sortKeys.size(); i++) {
+            EntityModel.FieldModel sortKey = sortKeys.get(i);
+            method.addStatement("$N = $L", sortKey.getName(), convertFromString(sortKey, "cursor[" + i + "]"));
+            arguments.add("$N, ", sortKey.getName());
+        }
+        method.nextControlFlow("catch ($T e)", RuntimeException.class)
+                .addStatement("throw new $T(\"Invalid cursor: \" + after, e)", IllegalArgumentException.class)
+                .endControlFlow()
+                .addStatement("items = $N.findKeysetPageAfter($Lrequest)", repositoryVar, arguments.build())
+                .endControlFlow()
+                .beginControlFlow("if (items.size() <= limit)")
+                .addStatement("return new $T(items, null)", keysetPage)
+                .endControlFlow()
+                .addStatement("$T last = items.get(limit - 1)", entityClass);
+        CodeBlock.Builder lastKeys = CodeBlock.builder();
+        for (int i = 0; i < sortKeys.size(); i++) {
+            lastKeys.add(i > 0 ? ", " : "").add("$T.valueOf(last.get$L())", String.class,
+                    sortKeys.get(i).getCapitalizedName());
+        }
+        method.addStatement("return new $T(new $T<>(items.subList(0, limit)), encodeCursor($L))",
+                keysetPage, ArrayList.class, lastKeys.build());
+        serviceImplBuilder.addMethod(method.build());
+
+        ClassName base64 = ClassName.get(Base64.class);
+        serviceImplBuilder.addMethod(MethodSpec.methodBuilder("encodeCursor")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .varargs()
+                .returns(String.class)
+                .addParameter(String[].class, "values")
+                .addStatement("$T cursor = new $T(\".\")", StringJoiner.class, StringJoiner.class)
+                .beginControlFlow("for (String value : values)")
+                .addStatement("cursor.add($T.getUrlEncoder().withoutPadding().encodeToString(value.getBytes($T.UTF_8)))",
+                        base64, StandardCharsets.class)
+                .endControlFlow()
+                .addStatement("return cursor.toString()")
+                .build());
+
+        serviceImplBuilder.addMethod(MethodSpec.methodBuilder("decodeCursor")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(String[].class)
+                .addParameter(String.class, "cursor")
+                .addParameter(int.class, "length")
+                .addStatement("String[] parts = cursor.split($S, -1)", "\\.")
+                .beginControlFlow("if (parts.length != length)")
+                .addStatement("throw new $T(\"Invalid cursor: \" + cursor)", IllegalArgumentException.class)
+                .endControlFlow()
+                .addStatement("String[] values = new String[length]")
+                .beginControlFlow("for (int i = 0; i < length; i++)")
+                .addComment("Invalid Base64 is reported as an IllegalArgumentException")
+                .addStatement("values[i] = new String($T.getUrlDecoder().decode(parts[i]), $T.UTF_8)",
+                        base64, StandardCharsets.class)
+                .endControlFlow()
+                .addStatement("return values")
+                .build());
+    }
+
+    /**
+     * Page or Slice of entities, depending on the pagination mode
+     */
+    private TypeName getPageType(ClassName elementClass) {
+        String pageType = model.isSlicePagination() ? "Slice" : "Page";
+        return ParameterizedTypeName.get(ClassName.get("org.springframework.data.domain", pageType), elementClass);
+    }
+
+    private CodeBlock generateUpdateCode(String entityVar) {
+        CodeBlock.Builder codeBuilder = CodeBlock.builder();
+        
+        for (EntityModel.FieldModel field : model.getFields()) {
+            if (!field.isId()) {
+                codeBuilder.addStatement("existing.set$L($N.get$L())", 
+                        field.getCapitalizedName(), entityVar, field.getCapitalizedName());
+            }
+        }
+        
+        return codeBuilder.build();
     }
 }
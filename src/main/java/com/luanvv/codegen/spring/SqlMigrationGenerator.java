@@ -2,10 +2,12 @@ package com.luanvv.codegen.spring;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 /**
  * Generator for Liquibase SQL migration files
@@ -14,60 +16,321 @@ public class SqlMigrationGenerator {
     
     private final CodeGenConfig config;
     private final File resourceOutputDirectory;
+    private File migrationFile;
+    private boolean migrationFileWritten;
+    private File sequenceMigrationFile;
+    private boolean sequenceMigrationFileWritten;
+    private long bytesWritten;
+    private long writeNanos;
+    private Consumer<String> messageSink = System.out::println;
+    private Consumer<String> warningSink = message -> System.out.println("WARNING: " + message);
+    private MigrationNaming migrationNaming = MigrationNaming.TIMESTAMP;
+    private MigrationIndex migrationIndex;
+    private GeneratorOutput output = FileSystemOutput.INSTANCE;
+    private int fileOrder = 1;
+    private int entityOrder = 1;
+
+    /**
+     * How the version of a new migration file is chosen when the configuration does not
+     * set an explicit {@code migrationVersion}
+     */
+    public enum MigrationNaming {
+        /** Current date and time (yyyyMMddHHmmss), differs between builds */
+        TIMESTAMP,
+        /**
+         * Declaration order of the entity followed by a hash of the SQL content, identical inputs
+         * give identical file names. The order prefix keeps migrations running in the order the
+         * entities are configured, so declare referenced tables first and add new entities after
+         * the existing ones.
+         */
+        CONTENT_HASH;
+
+        /**
+         * Parse a naming mode such as "timestamp" or "content-hash"
+         */
+        public static MigrationNaming fromString(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown migration naming '" + value
+                        + "', expected 'timestamp' or 'content-hash'", e);
+            }
+        }
+    }
 
     public SqlMigrationGenerator(CodeGenConfig config, File resourceOutputDirectory) {
         this.config = config;
         this.resourceOutputDirectory = resourceOutputDirectory;
     }    public void generate() throws IOException {
         // Create db/migration directory
-        File migrationDir = new File(resourceOutputDirectory, "db" + File.separator + "migration");
-        if (!migrationDir.exists()) {
-            migrationDir.mkdirs();
-        }
+        File migrationDir = getMigrationDirectory(resourceOutputDirectory);
+        output.createDirectories(migrationDir);
 
         String entityNameSnakeCase = camelToSnakeCase(config.getEntityName());
-        String expectedFilePattern = "_Create_" + entityNameSnakeCase + "_table.sql";
+
+        // Without a shared index (standalone use) index the directory for this call only
+        MigrationIndex index = migrationIndex;
+        if (index == null) {
+            index = new MigrationIndex(migrationDir, null, output);
+            index.load();
+        }
         
+        sequenceMigrationFile = null;
+        sequenceMigrationFileWritten = false;
+        bytesWritten = 0;
+        writeNanos = 0;
+
         // Check if a migration file for this entity already exists
-        File existingMigrationFile = findExistingMigrationFile(migrationDir, expectedFilePattern);
+        File existingMigrationFile = index.find(entityNameSnakeCase);
         
         if (existingMigrationFile != null) {
-            System.out.println("Migration file already exists: " + existingMigrationFile.getName() + " (skipping generation)");
+            log("Migration file already exists: " + existingMigrationFile.getName() + " (skipping generation)");
+            migrationFile = existingMigrationFile;
+            migrationFileWritten = false;
+            checkExistingMigration(index, migrationDir, entityNameSnakeCase, existingMigrationFile);
             return;
         }
 
-        // Generate filename with timestamp
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String filename = String.format("V%s__Create_%s_table.sql", timestamp, entityNameSnakeCase);
-          File sqlFile = new File(migrationDir, filename);
-        
-        // Use only user-provided SQL content
-        String sqlContent = config.getSqlFileContent();
-        if (sqlContent == null || sqlContent.trim().isEmpty()) {
+        // Use the user-provided SQL content, completed with the id sequence if it has none
+        if (config.getSqlFileContent() == null || config.getSqlFileContent().trim().isEmpty()) {
             throw new IOException("SQL content is required in the 'sqlFileContent' section of the configuration file. " +
                     "The plugin does not generate SQL automatically - please provide your own SQL migration content.");
         }
+        String sqlContent = getSqlContent();
+
+        // Generate filename with the migration version
+        String filename = String.format("V%s__Create_%s_table.sql", getMigrationVersion(sqlContent), entityNameSnakeCase);
+        File sqlFile = new File(migrationDir, filename);
         
-        Files.write(sqlFile.toPath(), sqlContent.getBytes());
-        System.out.println("Generated SQL migration file: " + filename);
+        byte[] sqlBytes = sqlContent.getBytes(StandardCharsets.UTF_8);
+        long writeStart = System.nanoTime();
+        output.write(sqlFile, sqlBytes);
+        writeNanos = System.nanoTime() - writeStart;
+        bytesWritten = sqlBytes.length;
+        index.add(sqlFile, GenerationFingerprintStore.sha256(sqlBytes));
+        migrationFile = sqlFile;
+        migrationFileWritten = true;
+        log("Generated SQL migration file: " + filename);
     }
 
-    private File findExistingMigrationFile(File migrationDir, String expectedFilePattern) {
-        if (!migrationDir.exists()) {
-            return null;
+    /**
+     * Create the id sequence in a migration of its own when the table was created by an existing
+     * migration without it, e.g. when an entity is switched from identity to sequence ids. Nothing
+     * is written if the index already has the sequence migration or the table migration creates it.
+     */
+    private void generateSequenceMigration(MigrationIndex index, File migrationDir, File existingMigrationFile)
+            throws IOException {
+        String sequenceName = config.getEffectiveSequenceName();
+        File existingSequenceFile = index.findSequence(sequenceName);
+        if (existingSequenceFile != null) {
+            sequenceMigrationFile = existingSequenceFile;
+            return;
         }
-        
-        File[] files = migrationDir.listFiles();
-        if (files == null) {
-            return null;
+        String existingContent = new String(output.read(existingMigrationFile), StandardCharsets.UTF_8);
+        if (createsSequence(existingContent)) {
+            return;
         }
-        
-        for (File file : files) {
-            if (file.getName().contains(expectedFilePattern)) {
-                return file;
-            }
-        }        
-        return null;
+
+        StringBuilder content = new StringBuilder();
+        if (existingContent.trim().startsWith("--liquibase formatted sql")) {
+            content.append("--liquibase formatted sql\n\n");
+        }
+        appendSequenceDdl(content, existingContent);
+        String sqlContent = content.toString();
+
+        // An explicit version belongs to the table migration, so the sequence migration follows it
+        String version = config.getMigrationVersion() != null && !config.getMigrationVersion().trim().isEmpty()
+                ? config.getMigrationVersion().trim() + ".1" : getMigrationVersion(sqlContent);
+        File sqlFile = new File(migrationDir, "V" + version + MigrationIndex.sequenceFileSuffix(sequenceName));
+        byte[] sqlBytes = sqlContent.getBytes(StandardCharsets.UTF_8);
+        long writeStart = System.nanoTime();
+        output.write(sqlFile, sqlBytes);
+        writeNanos = System.nanoTime() - writeStart;
+        bytesWritten = sqlBytes.length;
+        index.add(sqlFile, GenerationFingerprintStore.sha256(sqlBytes));
+        sequenceMigrationFile = sqlFile;
+        sequenceMigrationFileWritten = true;
+        log("Generated SQL migration file: " + sqlFile.getName() + " (" + existingMigrationFile.getName()
+                + " does not create sequence " + sequenceName + ")");
+    }
+
+    /**
+     * Set how versions of new migration files are chosen
+     */
+    public void setMigrationNaming(MigrationNaming migrationNaming) {
+        this.migrationNaming = migrationNaming;
+    }
+
+    /**
+     * Set the position of the entity among all configured entities: the position of its
+     * configuration file, and its position within that file (both starting at 1)
+     */
+    public void setDeclarationOrder(int fileOrder, int entityOrder) {
+        this.fileOrder = fileOrder;
+        this.entityOrder = entityOrder;
+    }
+
+    /**
+     * Use a shared index of the migration directory instead of listing the directory on every call.
+     * The index may also cover another directory, e.g. one holding committed migrations; new
+     * migration files are still written to the resource output directory.
+     */
+    public void setMigrationIndex(MigrationIndex migrationIndex) {
+        this.migrationIndex = migrationIndex;
+    }
+
+    /**
+     * Set where the migration file is written (defaults to the file system)
+     */
+    public void setOutput(GeneratorOutput output) {
+        this.output = output;
+    }
+
+    /**
+     * Get the directory migration files are written to
+     */
+    public static File getMigrationDirectory(File resourceOutputDirectory) {
+        return new File(resourceOutputDirectory, "db" + File.separator + "migration");
+    }
+
+    /**
+     * Set where progress messages are reported (defaults to standard output)
+     */
+    public void setMessageSink(Consumer<String> messageSink) {
+        this.messageSink = messageSink;
+    }
+
+    /**
+     * Set where warnings are reported (defaults to standard output)
+     */
+    public void setWarningSink(Consumer<String> warningSink) {
+        this.warningSink = warningSink;
+    }
+
+    /**
+     * Get the migration file written or found by the last call to {@link #generate()}
+     */
+    public File getMigrationFile() {
+        return migrationFile;
+    }
+
+    /**
+     * Check whether the last call to {@link #generate()} wrote a new migration file
+     */
+    public boolean isMigrationFileWritten() {
+        return migrationFileWritten;
+    }
+
+    /**
+     * Get the migration file creating the id sequence of an entity whose table was created by an
+     * existing migration, written or found by the last call to {@link #generate()}, or null
+     */
+    public File getSequenceMigrationFile() {
+        return sequenceMigrationFile;
+    }
+
+    /**
+     * Check whether the last call to {@link #generate()} wrote a new sequence migration file
+     */
+    public boolean isSequenceMigrationFileWritten() {
+        return sequenceMigrationFileWritten;
+    }
+
+    /**
+     * Get the number of bytes written by the last call to {@link #generate()}
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Get the time spent writing the migration file in the last call to {@link #generate()}, in nanoseconds
+     */
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    /**
+     * Compare the configured SQL with the existing migration file, which is never overwritten:
+     * report changed content, and add the sequence migration when the entity was switched to
+     * sequence ids after the table migration was written
+     */
+    private void checkExistingMigration(MigrationIndex index, File migrationDir, String entityNameSnakeCase,
+            File existingMigrationFile) throws IOException {
+        if (config.getSqlFileContent() == null) {
+            return;
+        }
+        String existingHash = index.getContentHash(entityNameSnakeCase);
+        if (GenerationFingerprintStore.sha256(getSqlContent().getBytes(StandardCharsets.UTF_8)).equals(existingHash)) {
+            return;
+        }
+        // A migration written before the switch to sequence ids has the SQL without the sequence DDL
+        String plainHash = GenerationFingerprintStore.sha256(config.getSqlFileContent().getBytes(StandardCharsets.UTF_8));
+        if (!plainHash.equals(existingHash)) {
+            warningSink.accept("sqlFileContent of " + config.getEntityName() + " differs from existing migration file "
+                    + existingMigrationFile.getName() + "; the existing file is kept, add a new migration for the change");
+        }
+        if (config.isSequenceIdGeneration()) {
+            generateSequenceMigration(index, migrationDir, existingMigrationFile);
+        }
+    }
+
+    /**
+     * Get the content of the migration file: sqlFileContent, followed by the DDL of the id
+     * sequence when ids come from a sequence that sqlFileContent does not create itself
+     */
+    String getSqlContent() {
+        String sqlContent = config.getSqlFileContent();
+        if (!config.isSequenceIdGeneration()) {
+            return sqlContent;
+        }
+        if (createsSequence(sqlContent)) {
+            return sqlContent;
+        }
+        StringBuilder content = new StringBuilder(sqlContent);
+        if (!sqlContent.endsWith("\n")) {
+            content.append('\n');
+        }
+        content.append('\n');
+        appendSequenceDdl(content, sqlContent);
+        return content.toString();
+    }
+
+    private boolean createsSequence(String sqlContent) {
+        return sqlContent.toLowerCase(Locale.ROOT).matches("(?s).*create\\s+sequence\\s+(if\\s+not\\s+exists\\s+)?"
+                + Pattern.quote(config.getEffectiveSequenceName().toLowerCase(Locale.ROOT)) + "\\b.*");
+    }
+
+    /**
+     * Append the DDL of the id sequence, as a changeset of its own when the table migration is
+     * Liquibase formatted SQL
+     */
+    private void appendSequenceDdl(StringBuilder content, String tableSqlContent) {
+        String sequenceName = config.getEffectiveSequenceName();
+        if (tableSqlContent.trim().startsWith("--liquibase formatted sql")) {
+            content.append("--changeset codegen:create-").append(sequenceName).append('\n');
+        }
+        // The increment must match allocationSize, which Hibernate checks against the database
+        content.append("CREATE SEQUENCE ").append(sequenceName).append(" START WITH 1 INCREMENT BY ")
+                .append(config.getIdGeneration().getAllocationSize()).append(";\n");
+    }
+
+    private String getMigrationVersion(String sqlContent) {
+        if (config.getMigrationVersion() != null && !config.getMigrationVersion().trim().isEmpty()) {
+            return config.getMigrationVersion().trim();
+        }
+        if (migrationNaming == MigrationNaming.CONTENT_HASH) {
+            // Flyway orders versions numerically and Liquibase's includeAll orders file names
+            // alphabetically; the fixed-width declaration order makes both run tables in the
+            // configured order, followed by 60 bits of the content hash
+            String hash = GenerationFingerprintStore.sha256(sqlContent.getBytes(StandardCharsets.UTF_8));
+            return String.format("%04d.%04d.%019d", fileOrder, entityOrder, Long.parseLong(hash.substring(0, 15), 16));
+        }
+        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+    }
+
+    private void log(String message) {
+        messageSink.accept(message);
     }
 
     private String camelToSnakeCase(String camelCase) {
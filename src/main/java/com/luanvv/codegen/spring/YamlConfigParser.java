@@ -1,41 +1,371 @@
 package com.luanvv.codegen.spring;
 
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.Constructor;
-import org.yaml.snakeyaml.TypeDescription;
 import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.TypeDescription;
+import org.yaml.snakeyaml.composer.Composer;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+import org.yaml.snakeyaml.resolver.Resolver;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Parser for YAML configuration files
+ * Parser for YAML configuration files.
+ *
+ * A configuration file contains one or more YAML documents (separated by {@code ---}).
+ * Each document is either a single entity configuration or a schema with a shared
+ * {@code packageName} and an {@code entities} list:
+ *
+ * <pre>
+ * packageName: com.example.demo
+ * entities:
+ *   - entityName: User
+ *     ...
+ *   - entityName: Product
+ *     ...
+ * </pre>
+ *
+ * Files are read as a stream of YAML events and every entity is constructed and handed
+ * to the caller on its own, so memory use is bounded by the largest entity rather than
+ * the size of the file. The SnakeYAML setup is created once per parser instance and
+ * reused for every file; instances are therefore not thread-safe.
  */
-public class YamlConfigParser {    /**
-     * Parse the YAML configuration file
+public class YamlConfigParser {
+
+    private static final String ENTITIES_KEY = "entities";
+    private static final String PACKAGE_NAME_KEY = "packageName";
+
+    private final LoaderOptions loaderOptions = new LoaderOptions();
+    private final Resolver resolver = new Resolver();
+    private final ConfigConstructor constructor;
+
+    public YamlConfigParser() {
+        constructor = new ConfigConstructor(loaderOptions);
+        TypeDescription configTypeDescription = new TypeDescription(CodeGenConfig.class);
+        configTypeDescription.addPropertyParameters("fields", CodeGenConfig.Field.class);
+        constructor.addTypeDescription(configTypeDescription);
+    }
+
+    /**
+     * Receives each entity configuration as soon as it has been parsed
+     */
+    @FunctionalInterface
+    public interface ConfigHandler<E extends Exception> {
+        void handle(CodeGenConfig config) throws E;
+    }
+
+    /**
+     * Receives each entity configuration together with the time spent parsing it
+     */
+    @FunctionalInterface
+    public interface TimedConfigHandler<E extends Exception> {
+        void handle(CodeGenConfig config, ParseTimings timings) throws E;
+    }
+
+    /**
+     * Time spent on a single entity: reading its YAML events, building the configuration
+     * object from them and validating it
+     */
+    public static final class ParseTimings {
+        private final long parseNanos;
+        private final long modelBuildNanos;
+        private final long validationNanos;
+
+        private ParseTimings(long parseNanos, long modelBuildNanos, long validationNanos) {
+            this.parseNanos = parseNanos;
+            this.modelBuildNanos = modelBuildNanos;
+            this.validationNanos = validationNanos;
+        }
+
+        public long getParseNanos() {
+            return parseNanos;
+        }
+
+        public long getModelBuildNanos() {
+            return modelBuildNanos;
+        }
+
+        public long getValidationNanos() {
+            return validationNanos;
+        }
+    }
+
+    /**
+     * Parse a YAML configuration file containing exactly one entity
      */
     public CodeGenConfig parse(File configFile) throws IOException {
+        List<CodeGenConfig> configs = parseAll(configFile);
+        if (configs.size() != 1) {
+            throw new IllegalArgumentException("Expected exactly one entity in " + configFile.getName()
+                    + " but found " + configs.size());
+        }
+        return configs.get(0);
+    }
+
+    /**
+     * Parse all entity configurations of a YAML configuration file
+     */
+    public List<CodeGenConfig> parseAll(File configFile) throws IOException {
+        List<CodeGenConfig> configs = new ArrayList<>();
+        parse(configFile, configs::add);
+        return configs;
+    }
+
+    /**
+     * Parse a YAML configuration file, handing every validated entity configuration
+     * to the handler before the next one is read
+     */
+    public <E extends Exception> void parse(File configFile, ConfigHandler<E> handler) throws IOException, E {
+        parseWithTimings(configFile, (config, timings) -> handler.handle(config));
+    }
+
+    /**
+     * Parse a YAML configuration file, handing every validated entity configuration and
+     * the time spent parsing it to the handler before the next one is read
+     */
+    public <E extends Exception> void parseWithTimings(File configFile, TimedConfigHandler<E> handler)
+            throws IOException, E {
         if (!configFile.exists()) {
             throw new IOException("Configuration file not found: " + configFile.getAbsolutePath());
         }
 
-        LoaderOptions loaderOptions = new LoaderOptions();
-        Constructor constructor = new Constructor(CodeGenConfig.class, loaderOptions);
-        TypeDescription configTypeDescription = new TypeDescription(CodeGenConfig.class);
-        configTypeDescription.addPropertyParameters("fields", CodeGenConfig.Field.class);
-        constructor.addTypeDescription(configTypeDescription);
-        
-        Yaml yaml = new Yaml(constructor);
-        
         try (InputStream inputStream = new FileInputStream(configFile)) {
-            CodeGenConfig config = yaml.load(inputStream);
-            
-            // Validate the configuration
-            validateConfig(config);
-            
-            return config;
+            EntityClock clock = new EntityClock();
+            Parser parser = new ParserImpl(new StreamReader(new UnicodeReader(inputStream)), loaderOptions);
+            expect(parser, Event.ID.StreamStart);
+
+            int documentCount = 0;
+            while (!parser.checkEvent(Event.ID.StreamEnd)) {
+                Event documentStart = expect(parser, Event.ID.DocumentStart);
+                if (parser.checkEvent(Event.ID.MappingStart)) {
+                    parseDocument(parser, documentStart, clock, handler);
+                    documentCount++;
+                } else {
+                    // Only empty documents (e.g. a trailing ---) may hold something other than a mapping
+                    List<Event> events = new ArrayList<>();
+                    readNode(parser, events);
+                    if (!isNullScalar(events)) {
+                        throw new IllegalArgumentException("Configuration document must be a mapping in "
+                                + configFile.getName());
+                    }
+                }
+                expect(parser, Event.ID.DocumentEnd);
+            }
+
+            if (documentCount == 0) {
+                // Validate the configuration
+                validateConfig(null);
+            }
+        }
+    }
+
+    /**
+     * Parse one document, which is either a single entity or a schema with an entities list
+     */
+    private <E extends Exception> void parseDocument(Parser parser, Event documentStart, EntityClock clock,
+            TimedConfigHandler<E> handler) throws E {
+        List<Event> documentEvents = new ArrayList<>();
+        documentEvents.add(parser.getEvent()); // mapping start
+        String packageName = null;
+        boolean schema = false;
+
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            Event keyEvent = parser.getEvent();
+            String key = keyEvent instanceof ScalarEvent ? ((ScalarEvent) keyEvent).getValue() : null;
+
+            if (ENTITIES_KEY.equals(key)) {
+                schema = true;
+                packageName = getSchemaPackageName(documentEvents);
+                parseEntities(parser, documentStart, packageName, clock, handler);
+            } else if (schema) {
+                throw new IllegalArgumentException("Schema property '" + key + "' must be placed before '"
+                        + ENTITIES_KEY + "'");
+            } else {
+                documentEvents.add(keyEvent);
+                readNode(parser, documentEvents);
+            }
+        }
+        documentEvents.add(parser.getEvent()); // mapping end
+
+        if (!schema) {
+            handleEntity(constructConfig(documentStart, documentEvents, clock), clock, handler);
+        }
+    }
+
+    private <E extends Exception> void parseEntities(Parser parser, Event documentStart, String packageName,
+            EntityClock clock, TimedConfigHandler<E> handler) throws E {
+        expect(parser, Event.ID.SequenceStart);
+        while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+            List<Event> entityEvents = new ArrayList<>();
+            readNode(parser, entityEvents);
+            CodeGenConfig config = constructConfig(documentStart, entityEvents, clock);
+            if (config != null && config.getPackageName() == null) {
+                config.setPackageName(packageName);
+            }
+            handleEntity(config, clock, handler);
+        }
+        parser.getEvent(); // sequence end
+    }
+
+    private <E extends Exception> void handleEntity(CodeGenConfig config, EntityClock clock,
+            TimedConfigHandler<E> handler) throws E {
+        long validationStart = System.nanoTime();
+        // Validate the configuration
+        validateConfig(config);
+        long validationEnd = System.nanoTime();
+
+        // Everything since the previous entity that was not spent building the model was spent reading events
+        ParseTimings timings = new ParseTimings(validationStart - clock.entityStart - clock.modelBuildNanos,
+                clock.modelBuildNanos, validationEnd - validationStart);
+        handler.handle(config, timings);
+        clock.reset();
+    }
+
+    /**
+     * Get the shared package name from the schema properties read before the entities list
+     */
+    private String getSchemaPackageName(List<Event> documentEvents) {
+        String packageName = null;
+        // documentEvents holds the mapping start followed by key/value pairs
+        for (int i = 1; i < documentEvents.size(); i += 2) {
+            Event key = documentEvents.get(i);
+            Event value = i + 1 < documentEvents.size() ? documentEvents.get(i + 1) : null;
+            String name = key instanceof ScalarEvent ? ((ScalarEvent) key).getValue() : null;
+            if (!PACKAGE_NAME_KEY.equals(name) || !(value instanceof ScalarEvent)) {
+                throw new IllegalArgumentException("Unsupported schema property: " + name
+                        + " (only '" + PACKAGE_NAME_KEY + "' and '" + ENTITIES_KEY + "' are allowed)");
+            }
+            packageName = ((ScalarEvent) value).getValue();
+        }
+        return packageName;
+    }
+
+    /**
+     * Construct an entity configuration from the events of a single YAML node
+     */
+    private CodeGenConfig constructConfig(Event documentStart, List<Event> nodeEvents, EntityClock clock) {
+        long start = System.nanoTime();
+        try {
+            return constructConfig(documentStart, nodeEvents);
+        } finally {
+            clock.modelBuildNanos += System.nanoTime() - start;
+        }
+    }
+
+    private CodeGenConfig constructConfig(Event documentStart, List<Event> nodeEvents) {
+        List<Event> events = new ArrayList<>(nodeEvents.size() + 2);
+        events.add(documentStart);
+        events.addAll(nodeEvents);
+        events.add(new DocumentEndEvent(null, null, false));
+
+        Node node = new Composer(new EventReplayParser(events), resolver, loaderOptions).getNode();
+        if (node == null || Tag.NULL.equals(node.getTag())) {
+            return null;
+        }
+        node.setTag(new Tag(CodeGenConfig.class));
+        return (CodeGenConfig) constructor.construct(node);
+    }
+
+    /**
+     * Read the events of one complete node (scalar, alias, mapping or sequence)
+     */
+    private void readNode(Parser parser, List<Event> events) {
+        int depth = 0;
+        do {
+            Event event = parser.getEvent();
+            events.add(event);
+            if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                depth++;
+            } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    private Event expect(Parser parser, Event.ID id) {
+        Event event = parser.getEvent();
+        if (!event.is(id)) {
+            throw new IllegalArgumentException("Unexpected YAML content at " + event.getStartMark()
+                    + ": expected " + id + " but found " + event.getEventId());
+        }
+        return event;
+    }
+
+    private boolean isNullScalar(List<Event> events) {
+        if (events.size() != 1 || !(events.get(0) instanceof ScalarEvent)) {
+            return false;
+        }
+        ScalarEvent scalar = (ScalarEvent) events.get(0);
+        return scalar.isPlain() && scalar.getValue().isEmpty();
+    }
+
+    /**
+     * Constructor exposing construction of an already composed node
+     */
+    private static final class ConfigConstructor extends Constructor {
+
+        private ConfigConstructor(LoaderOptions loaderOptions) {
+            super(CodeGenConfig.class, loaderOptions);
+        }
+
+        private Object construct(Node node) {
+            return constructDocument(node);
+        }
+    }
+
+    /**
+     * Tracks the time spent on the entity currently being read. Kept per parse call so
+     * that the parser itself holds no state between files.
+     */
+    private static final class EntityClock {
+        private long entityStart = System.nanoTime();
+        private long modelBuildNanos;
+
+        private void reset() {
+            entityStart = System.nanoTime();
+            modelBuildNanos = 0;
+        }
+    }
+
+    /**
+     * Parser that replays previously read events, used to compose one entity at a time
+     */
+    private static final class EventReplayParser implements Parser {
+
+        private final List<Event> events;
+        private int position;
+
+        private EventReplayParser(List<Event> events) {
+            this.events = events;
+        }
+
+        @Override
+        public boolean checkEvent(Event.ID choice) {
+            return position < events.size() && events.get(position).is(choice);
+        }
+
+        @Override
+        public Event peekEvent() {
+            return position < events.size() ? events.get(position) : null;
+        }
+
+        @Override
+        public Event getEvent() {
+            return position < events.size() ? events.get(position++) : null;
         }
     }
 
@@ -82,6 +412,41 @@ public class YamlConfigParser {    /**
             }
         }
 
+        // Validate explicit migration version (digits separated by dots or underscores)
+        if (config.getMigrationVersion() != null && !config.getMigrationVersion().trim().matches("\\d+([._]\\d+)*")) {
+            throw new IllegalArgumentException("Invalid migration version: " + config.getMigrationVersion());
+        }
+
+        if (config.getPagination() != null) {
+            validatePagination(config);
+        }
+
+        if (config.getKeysetPagination() != null) {
+            validateKeysetPagination(config);
+        }
+
+        if (config.getExport() != null && config.getExport().getFetchSize() < 1) {
+            throw new IllegalArgumentException("Export fetchSize must be at least 1 but found "
+                    + config.getExport().getFetchSize());
+        }
+
+        if (config.getBatch() != null) {
+            validateBatch(config);
+        }
+
+        if (config.getIdGeneration() != null) {
+            validateIdGeneration(config);
+        }
+
+        if (config.getViews() != null) {
+            validateViews(config);
+        }
+
+        // Validate layer names and that every selected layer has the layers it depends on
+        if (config.getLayers() != null) {
+            CodeGenerator.Layer.parse(config.getLayers());
+        }
+
         // Validate ID fields exist in fields list
         if (config.getIdFields() != null && !config.getIdFields().isEmpty()) {
             for (String idField : config.getIdFields()) {
@@ -94,6 +459,113 @@ public class YamlConfigParser {    /**
         }
     }
 
+    private void validatePagination(CodeGenConfig config) {
+        CodeGenConfig.Pagination pagination = config.getPagination();
+        if (pagination.getDefaultSize() < 1 || pagination.getMaxSize() < pagination.getDefaultSize()) {
+            throw new IllegalArgumentException("Pagination requires 1 <= defaultSize <= maxSize but found defaultSize "
+                    + pagination.getDefaultSize() + " and maxSize " + pagination.getMaxSize());
+        }
+        if (!"page".equals(pagination.getMode()) && !"slice".equals(pagination.getMode())) {
+            throw new IllegalArgumentException("Unknown pagination mode '" + pagination.getMode()
+                    + "', expected 'page' or 'slice'");
+        }
+        if (pagination.getSortableFields() != null) {
+            for (String sortableField : pagination.getSortableFields()) {
+                boolean found = config.getFields().stream()
+                        .anyMatch(field -> field.getName().equals(sortableField));
+                if (!found) {
+                    throw new IllegalArgumentException("Sortable field '" + sortableField + "' not found in fields list");
+                }
+            }
+        }
+    }
+
+    private void validateKeysetPagination(CodeGenConfig config) {
+        CodeGenConfig.KeysetPagination keyset = config.getKeysetPagination();
+        if (keyset.getDefaultLimit() < 1 || keyset.getMaxLimit() < keyset.getDefaultLimit()) {
+            throw new IllegalArgumentException("Keyset pagination requires 1 <= defaultLimit <= maxLimit but found defaultLimit "
+                    + keyset.getDefaultLimit() + " and maxLimit " + keyset.getMaxLimit());
+        }
+        List<String> idFields = config.getIdFields() != null ? config.getIdFields() : List.of();
+        List<String> sortKeys = keyset.getSortKeys();
+        if (sortKeys == null) {
+            if (idFields.isEmpty()) {
+                throw new IllegalArgumentException("Keyset pagination requires sortKeys or an id field");
+            }
+            return;
+        }
+        // The last key must be unique so that no entity is skipped or repeated between pages
+        if (sortKeys.isEmpty() || !idFields.contains(sortKeys.get(sortKeys.size() - 1))) {
+            throw new IllegalArgumentException("Keyset sortKeys must end with an id field but found " + sortKeys);
+        }
+        for (String sortKey : sortKeys) {
+            CodeGenConfig.Field field = config.getFields().stream()
+                    .filter(candidate -> candidate.getName().equals(sortKey))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Keyset sort key '" + sortKey
+                            + "' not found in fields list"));
+            // Rows with a null key would never match the seek condition
+            if (field.isNullable() && !idFields.contains(sortKey)) {
+                throw new IllegalArgumentException("Keyset sort key '" + sortKey + "' must not be nullable");
+            }
+        }
+    }
+
+    private void validateBatch(CodeGenConfig config) {
+        CodeGenConfig.Batch batch = config.getBatch();
+        if (batch.getSize() < 1 || batch.getMaxItems() < 1) {
+            throw new IllegalArgumentException("Batch size and maxItems must be at least 1 but found size "
+                    + batch.getSize() + " and maxItems " + batch.getMaxItems());
+        }
+        // Batch updates and deletes address the entities by id
+        if (config.getIdFields() == null || config.getIdFields().isEmpty()) {
+            throw new IllegalArgumentException("Batch endpoints require an id field");
+        }
+    }
+
+    private void validateIdGeneration(CodeGenConfig config) {
+        CodeGenConfig.IdGeneration idGeneration = config.getIdGeneration();
+        if (!"identity".equals(idGeneration.getStrategy()) && !"sequence".equals(idGeneration.getStrategy())) {
+            throw new IllegalArgumentException("Unknown id strategy '" + idGeneration.getStrategy()
+                    + "', expected 'identity' or 'sequence'");
+        }
+        if (!config.isSequenceIdGeneration()) {
+            return;
+        }
+        if (idGeneration.getAllocationSize() < 1) {
+            throw new IllegalArgumentException("Id allocationSize must be at least 1 but found "
+                    + idGeneration.getAllocationSize());
+        }
+        // The name is written into the sequence DDL
+        if (!config.getEffectiveSequenceName().matches("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?")) {
+            throw new IllegalArgumentException("Invalid sequence name: " + config.getEffectiveSequenceName());
+        }
+        boolean numericId = config.getIdFields() != null && config.getFields().stream()
+                .filter(field -> config.getIdFields().contains(field.getName()))
+                .anyMatch(field -> "Long".equals(field.getType()) || "Integer".equals(field.getType()));
+        if (!numericId) {
+            throw new IllegalArgumentException("Sequence id generation requires a Long or Integer id field");
+        }
+    }
+
+    private void validateViews(CodeGenConfig config) {
+        for (Map.Entry<String, List<String>> view : config.getViews().entrySet()) {
+            // The view name becomes part of the record and method names
+            if (!isValidJavaIdentifier(view.getKey())) {
+                throw new IllegalArgumentException("Invalid view name: " + view.getKey());
+            }
+            if (view.getValue() == null || view.getValue().isEmpty()) {
+                throw new IllegalArgumentException("View '" + view.getKey() + "' must select at least one field");
+            }
+            for (String fieldName : view.getValue()) {
+                if (config.getFields().stream().noneMatch(field -> field.getName().equals(fieldName))) {
+                    throw new IllegalArgumentException("Field '" + fieldName + "' of view '" + view.getKey()
+                            + "' not found in fields list");
+                }
+            }
+        }
+    }
+
     /**
      * Check if a string is a valid Java package name
      */
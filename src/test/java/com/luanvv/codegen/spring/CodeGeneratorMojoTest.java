@@ -6,6 +6,7 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -91,4 +92,34 @@ public class CodeGeneratorMojoTest {
         assertEquals("ID field type should be Long", "Long", idField.getType());
         assertFalse("ID field should not be nullable", idField.isNullable());
     }
+
+    /**
+     * Test parsing several entities from schema and multi-document YAML
+     */
+    @Test
+    @WithoutMojo
+    public void testMultiEntityParsing() throws Exception {
+        YamlConfigParser parser = new YamlConfigParser();
+        File schemaFile = new File("src/test/resources/sample-schema.yaml");
+
+        List<CodeGenConfig> configs = parser.parseAll(schemaFile);
+
+        assertEquals("Should parse all entities of all documents", 3, configs.size());
+        assertEquals("Category", configs.get(0).getEntityName());
+        assertEquals("Schema package should apply to its entities", "com.example.shop", configs.get(0).getPackageName());
+        assertEquals("Supplier", configs.get(1).getEntityName());
+        assertEquals(2, configs.get(1).getFields().size());
+        assertEquals("AuditEntry", configs.get(2).getEntityName());
+        assertEquals("com.example.audit", configs.get(2).getPackageName());
+
+        // The same parser instance is reused for further files
+        assertEquals("User", parser.parse(new File("src/test/resources/sample-config.yaml")).getEntityName());
+
+        try {
+            parser.parse(schemaFile);
+            fail("Parsing a multi-entity file as a single entity should fail");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("found 3"));
+        }
+    }
 }
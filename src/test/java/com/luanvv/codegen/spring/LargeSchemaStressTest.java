@@ -0,0 +1,154 @@
+package com.luanvv.codegen.spring;
+
+import org.apache.maven.plugin.testing.MojoRule;
+import org.apache.maven.plugin.testing.SilentLog;
+import org.apache.maven.plugin.testing.WithoutMojo;
+import org.apache.maven.project.MavenProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Stress tests running the mojo over large synthetic schemas, to catch behavior that grows
+ * quadratically with the number of entities or fields before it shows in real builds.
+ *
+ * Only run with {@code mvn test -Pstress} or by name. Sizes and ceilings can be raised for
+ * local runs, e.g.
+ * {@code mvn test -Dtest=LargeSchemaStressTest -Dstress.entities=20000 -Dstress.maxSeconds=300}
+ */
+public class LargeSchemaStressTest {
+
+    private static final int ENTITY_COUNT = Integer.getInteger("stress.entities", 2000);
+    private static final int ENTITIES_PER_FILE = 100;
+    private static final int FIELD_COUNT = 10;
+    private static final int WIDE_ENTITY_COUNT = 20;
+    private static final int WIDE_FIELD_COUNT = Integer.getInteger("stress.fields", 500);
+    // Ceilings are several times the time and memory taken on a developer machine
+    private static final long MAX_SECONDS = Long.getLong("stress.maxSeconds", 60);
+    private static final long MAX_RETAINED_HEAP_MB = Long.getLong("stress.maxRetainedHeapMb", 256);
+
+    @Rule
+    public MojoRule rule = new MojoRule() {
+        @Override
+        protected void before() throws Throwable {
+            // Empty implementation
+        }
+
+        @Override
+        protected void after() {
+            // Empty implementation
+        }
+    };
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Thousands of entities, generated once from scratch and once more with all migrations
+     * and sources already present, so every entity is looked up in a large migration index
+     */
+    @Test
+    @WithoutMojo
+    public void testThousandsOfEntities() throws Exception {
+        File[] configFiles = SchemaFixtures.writeSchemaFiles(tempFolder.newFolder("config"),
+                ENTITY_COUNT, ENTITIES_PER_FILE, FIELD_COUNT);
+        long baselineHeap = usedHeapAfterGc();
+
+        CodeGeneratorMojo mojo = createMojo(configFiles);
+        assertWithinTimeCeiling("first generation", () -> mojo.execute());
+        File migrationDir = new File(tempFolder.getRoot(), "generated-resources/db/migration");
+        assertEquals(ENTITY_COUNT, migrationDir.list().length);
+        assertTrue(new File(tempFolder.getRoot(),
+                "generated-sources/com/example/stress/entity/Entity" + (ENTITY_COUNT - 1) + ".java").exists());
+
+        CodeGeneratorMojo regeneration = createMojo(configFiles);
+        rule.setVariableValueToObject(regeneration, "incremental", false);
+        assertWithinTimeCeiling("regeneration", () -> regeneration.execute());
+        assertEquals("Existing migrations must be reused", ENTITY_COUNT, migrationDir.list().length);
+
+        String report = new String(Files.readAllBytes(
+                new File(tempFolder.getRoot(), "codegen/codegen-report.json").toPath()), StandardCharsets.UTF_8);
+        assertTrue(report.contains("\"entityCount\": " + ENTITY_COUNT + ","));
+        assertTrue(report.contains("\"filesWritten\": 0,"));
+
+        assertRetainedHeapBelowCeiling(baselineHeap, mojo, regeneration);
+    }
+
+    /**
+     * Entities with hundreds of fields, whose accessors, equals, hashCode, toString
+     * and update code grow with the number of fields
+     */
+    @Test
+    @WithoutMojo
+    public void testVeryWideEntities() throws Exception {
+        File[] configFiles = {SchemaFixtures.writeSchemaFile(tempFolder.newFolder("config"),
+                0, WIDE_ENTITY_COUNT, WIDE_FIELD_COUNT)};
+        long baselineHeap = usedHeapAfterGc();
+
+        CodeGeneratorMojo mojo = createMojo(configFiles);
+        assertWithinTimeCeiling("wide entity generation", () -> mojo.execute());
+
+        String entitySource = new String(Files.readAllBytes(new File(tempFolder.getRoot(),
+                "generated-sources/com/example/stress/entity/Entity0.java").toPath()), StandardCharsets.UTF_8);
+        assertTrue(entitySource.contains("private Long field" + (WIDE_FIELD_COUNT - 1) + ";"));
+        assertTrue(entitySource.contains("public int hashCode()"));
+
+        assertRetainedHeapBelowCeiling(baselineHeap, mojo);
+    }
+
+    private CodeGeneratorMojo createMojo(File[] configFiles) throws Exception {
+        File root = tempFolder.getRoot();
+        CodeGeneratorMojo mojo = new CodeGeneratorMojo();
+        mojo.setLog(new SilentLog());
+        rule.setVariableValueToObject(mojo, "project", new MavenProject());
+        rule.setVariableValueToObject(mojo, "configFiles", configFiles);
+        rule.setVariableValueToObject(mojo, "outputDirectory", new File(root, "generated-sources"));
+        rule.setVariableValueToObject(mojo, "testOutputDirectory", new File(root, "generated-test-sources"));
+        rule.setVariableValueToObject(mojo, "resourceOutputDirectory", new File(root, "generated-resources"));
+        rule.setVariableValueToObject(mojo, "stateDirectory", new File(root, "codegen"));
+        rule.setVariableValueToObject(mojo, "reportFile", new File(root, "codegen/codegen-report.json"));
+        rule.setVariableValueToObject(mojo, "migrationNaming", "content-hash");
+        rule.setVariableValueToObject(mojo, "incremental", true);
+        rule.setVariableValueToObject(mojo, "threads", 1);
+        rule.setVariableValueToObject(mojo, "pluginVersion", "stress");
+        return mojo;
+    }
+
+    private void assertWithinTimeCeiling(String description, MojoRun run) throws Exception {
+        long start = System.nanoTime();
+        run.execute();
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+        assertTrue(description + " took " + seconds + " s, more than the ceiling of " + MAX_SECONDS + " s",
+                seconds <= MAX_SECONDS);
+    }
+
+    /**
+     * Check the heap still held once the mojos are done, while they are still referenced
+     */
+    private void assertRetainedHeapBelowCeiling(long baselineHeap, Object... mojos) {
+        long retainedMb = (usedHeapAfterGc() - baselineHeap) / (1024 * 1024);
+        assertNotNull(mojos);
+        assertTrue("Generation retains " + retainedMb + " MB of heap, more than the ceiling of "
+                + MAX_RETAINED_HEAP_MB + " MB", retainedMb <= MAX_RETAINED_HEAP_MB);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @FunctionalInterface
+    private interface MojoRun {
+        void execute() throws Exception;
+    }
+}
@@ -0,0 +1,129 @@
+package com.luanvv.codegen.spring;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic schemas of configurable size for scale and stress tests. Published in the test jar,
+ * so the benchmarks use the same schemas.
+ */
+public final class SchemaFixtures {
+
+    public static final String PACKAGE_NAME = "com.example.stress";
+
+    private static final String[] FIELD_TYPES = {"String", "Integer", "Boolean", "LocalDateTime", "Long"};
+
+    private SchemaFixtures() {
+    }
+
+    /**
+     * Build an entity with an id, an email, an active flag and further fields of rotating types
+     */
+    public static CodeGenConfig entity(int index, int fieldCount) {
+        CodeGenConfig config = new CodeGenConfig();
+        config.setPackageName(PACKAGE_NAME);
+        config.setEntityName("Entity" + index);
+        config.setIdFields(List.of("id"));
+
+        List<CodeGenConfig.Field> fields = new ArrayList<>();
+        CodeGenConfig.Field id = new CodeGenConfig.Field("id", "Long");
+        id.setNullable(false);
+        fields.add(id);
+        CodeGenConfig.Field email = new CodeGenConfig.Field("email", "String");
+        email.setLength(100);
+        fields.add(email);
+        fields.add(new CodeGenConfig.Field("active", "Boolean"));
+        for (int i = fields.size(); i < fieldCount; i++) {
+            fields.add(new CodeGenConfig.Field("field" + i, FIELD_TYPES[i % FIELD_TYPES.length]));
+        }
+        config.setFields(fields);
+        config.setSqlFileContent("--liquibase formatted sql\n\n--changeset stress:" + config.getEntityName()
+                + "\nCREATE TABLE " + config.getEffectiveTableName() + " (id BIGINT PRIMARY KEY);\n");
+        return config;
+    }
+
+    /**
+     * Build a schema of entities with the same number of fields each
+     */
+    public static List<CodeGenConfig> schema(int entityCount, int fieldCount) {
+        List<CodeGenConfig> configs = new ArrayList<>();
+        for (int i = 0; i < entityCount; i++) {
+            configs.add(entity(i, fieldCount));
+        }
+        return configs;
+    }
+
+    /**
+     * Write a schema of entityCount entities as one schema YAML file
+     */
+    public static File writeSchemaFile(File directory, int entityCount, int fieldCount) throws IOException {
+        return writeSchemaFile(directory, 0, entityCount, fieldCount);
+    }
+
+    /**
+     * Write entities firstIndex to firstIndex + entityCount - 1 as one schema YAML file
+     * with a shared package name and an entities list
+     */
+    public static File writeSchemaFile(File directory, int firstIndex, int entityCount, int fieldCount)
+            throws IOException {
+        StringBuilder yaml = new StringBuilder();
+        yaml.append("packageName: ").append(PACKAGE_NAME).append('\n');
+        yaml.append("entities:\n");
+        for (int i = firstIndex; i < firstIndex + entityCount; i++) {
+            CodeGenConfig config = entity(i, fieldCount);
+            yaml.append("  - entityName: ").append(config.getEntityName()).append('\n');
+            yaml.append("    idFields:\n      - id\n");
+            yaml.append("    fields:\n");
+            for (CodeGenConfig.Field field : config.getFields()) {
+                yaml.append("      - name: ").append(field.getName()).append('\n');
+                yaml.append("        type: ").append(field.getType()).append('\n');
+                yaml.append("        nullable: ").append(field.isNullable()).append('\n');
+                if (field.getLength() != null) {
+                    yaml.append("        length: ").append(field.getLength()).append('\n');
+                }
+            }
+            yaml.append("    sqlFileContent: |\n");
+            for (String line : config.getSqlFileContent().split("\n")) {
+                yaml.append("      ").append(line).append('\n');
+            }
+        }
+        File file = new File(directory, "schema-" + firstIndex + "-" + entityCount + "x" + fieldCount + ".yaml");
+        Files.write(file.toPath(), yaml.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * Write a schema of entityCount entities split into files of at most entitiesPerFile entities
+     */
+    public static File[] writeSchemaFiles(File directory, int entityCount, int entitiesPerFile, int fieldCount)
+            throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int first = 0; first < entityCount; first += entitiesPerFile) {
+            files.add(writeSchemaFile(directory, first, Math.min(entitiesPerFile, entityCount - first), fieldCount));
+        }
+        return files.toArray(new File[0]);
+    }
+
+    public static File createTempDirectory() throws IOException {
+        return Files.createTempDirectory("codegen-schema").toFile();
+    }
+
+    public static void deleteRecursively(File directory) {
+        if (directory == null || !directory.exists()) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,13 +2,43 @@ package com.luanvv.codegen.spring.integration;
 
 import com.luanvv.codegen.spring.CodeGenConfig;
 import com.luanvv.codegen.spring.CodeGenerator;
+import com.luanvv.codegen.spring.EntityModel;
+import com.luanvv.codegen.spring.FileSystemOutput;
+import com.luanvv.codegen.spring.GenerationCache;
+import com.luanvv.codegen.spring.GenerationFingerprintStore;
+import com.luanvv.codegen.spring.GenerationReport;
+import com.luanvv.codegen.spring.InMemoryOutput;
+import com.luanvv.codegen.spring.MigrationIndex;
+import com.luanvv.codegen.spring.SqlMigrationGenerator;
 import com.luanvv.codegen.spring.YamlConfigParser;
+import com.sun.source.util.JavacTask;
 import org.junit.Test;
 import org.junit.Rule;
 import org.junit.rules.TemporaryFolder;
 
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -61,4 +91,649 @@ public class CodeGenerationIntegrationTest {
         System.out.println("Generated test files in: " + testOutputDir.getAbsolutePath());
         System.out.println("Generated resources in: " + resourceOutputDir.getAbsolutePath());
     }
+
+    @Test
+    public void testFingerprintStoreTracksGeneratedFiles() throws Exception {
+        File outputDir = tempFolder.newFolder("generated-sources");
+        File testOutputDir = tempFolder.newFolder("generated-test-sources");
+        File resourceOutputDir = tempFolder.newFolder("generated-resources");
+        File configFile = new File("src/test/resources/sample-config.yaml");
+
+        CodeGenConfig config = new YamlConfigParser().parse(configFile);
+        CodeGenerator generator = new CodeGenerator(config, outputDir, testOutputDir, resourceOutputDir);
+        generator.generateAll();
+
+        List<File> outputs = generator.getGeneratedFiles();
+        assertEquals("Should record SQL migration and all Java files", 8, outputs.size());
+
+        File storeFile = new File(tempFolder.getRoot(), "state/fingerprints.properties");
+        String fingerprint = GenerationFingerprintStore.fingerprint(configFile, "settings");
+        GenerationFingerprintStore store = new GenerationFingerprintStore(storeFile);
+        store.put(configFile, fingerprint, outputs);
+        store.save();
+
+        GenerationFingerprintStore reloaded = new GenerationFingerprintStore(storeFile);
+        reloaded.load();
+        assertTrue("Unchanged configuration should be up to date", reloaded.isUpToDate(configFile, fingerprint));
+        assertFalse("Changed settings should invalidate the fingerprint",
+                reloaded.isUpToDate(configFile, GenerationFingerprintStore.fingerprint(configFile, "other")));
+
+        assertTrue(outputs.get(0).delete());
+        assertFalse("Missing output should invalidate the fingerprint", reloaded.isUpToDate(configFile, fingerprint));
+
+        Set<File> orphaned = reloaded.removeAllExcept(Collections.emptyList());
+        assertEquals("Removed configuration should release its outputs", outputs.size(), orphaned.size());
+    }
+
+    @Test
+    public void testParallelGenerationMatchesSequential() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+
+        File sequentialDir = tempFolder.newFolder("sequential");
+        List<String> sequentialMessages = new ArrayList<>();
+        CodeGenerator sequential = new CodeGenerator(config, sequentialDir, tempFolder.newFolder("sequential-test"),
+                tempFolder.newFolder("sequential-resources"));
+        sequential.setMessageSink(sequentialMessages::add);
+        sequential.generateAll();
+
+        File parallelDir = tempFolder.newFolder("parallel");
+        List<String> parallelMessages = new ArrayList<>();
+        CodeGenerator parallel = new CodeGenerator(config, parallelDir, tempFolder.newFolder("parallel-test"),
+                tempFolder.newFolder("parallel-resources"));
+        parallel.setMessageSink(parallelMessages::add);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            parallel.setExecutor(pool);
+            parallel.generateAll();
+        } finally {
+            pool.shutdown();
+        }
+
+        // Index 0 is the SQL migration, whose name contains a timestamp
+        assertEquals("Messages should be reported in generator order", sequentialMessages.size(), parallelMessages.size());
+        for (int i = 1; i < sequentialMessages.size(); i++) {
+            assertEquals(sequentialMessages.get(i), parallelMessages.get(i));
+        }
+        assertEquals(sequential.getGeneratedFiles().size(), parallel.getGeneratedFiles().size());
+        for (int i = 1; i < sequential.getGeneratedFiles().size(); i++) {
+            File sequentialFile = sequential.getGeneratedFiles().get(i);
+            File parallelFile = parallel.getGeneratedFiles().get(i);
+            assertEquals(sequentialFile.getName(), parallelFile.getName());
+            assertArrayEquals(Files.readAllBytes(sequentialFile.toPath()), Files.readAllBytes(parallelFile.toPath()));
+        }
+    }
+
+    @Test
+    public void testRegenerationLeavesUnchangedFilesUntouched() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        File outputDir = tempFolder.newFolder("generated-sources");
+        CodeGenerator generator = new CodeGenerator(config, outputDir, tempFolder.newFolder("generated-test-sources"),
+                tempFolder.newFolder("generated-resources"));
+
+        generator.generateAll();
+        assertEquals("First generation should write every file", 8, generator.getWrittenFileCount());
+
+        File entityFile = new File(outputDir, "com/example/demo/entity/User.java");
+        assertTrue(entityFile.setLastModified(0L));
+
+        generator.generateAll();
+        assertEquals("Second generation should not write anything", 0, generator.getWrittenFileCount());
+        assertEquals(8, generator.getUnchangedFileCount());
+        assertEquals("Unchanged file should keep its timestamp", 0L, entityFile.lastModified());
+    }
+
+    @Test
+    public void testContentHashMigrationNamingIsReproducible() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+
+        File[] migrationFiles = new File[2];
+        for (int i = 0; i < migrationFiles.length; i++) {
+            File resourceOutputDir = tempFolder.newFolder("resources-" + i);
+            CodeGenerator generator = new CodeGenerator(config, tempFolder.newFolder("sources-" + i),
+                    tempFolder.newFolder("test-sources-" + i), resourceOutputDir);
+            generator.setMigrationNaming(SqlMigrationGenerator.MigrationNaming.fromString("content-hash"));
+            generator.generateAll();
+            migrationFiles[i] = generator.getGeneratedFiles().get(0);
+        }
+
+        assertEquals("Identical inputs should produce identical file names",
+                migrationFiles[0].getName(), migrationFiles[1].getName());
+        assertArrayEquals(Files.readAllBytes(migrationFiles[0].toPath()), Files.readAllBytes(migrationFiles[1].toPath()));
+        assertTrue(migrationFiles[0].getName().matches("V0001\\.0001\\.\\d{19}__Create_user_table\\.sql"));
+
+        // The declaration order comes first, so later entities sort after earlier ones whatever their content
+        File orderedResourceDir = tempFolder.newFolder("resources-ordered");
+        CodeGenerator later = new CodeGenerator(config, tempFolder.newFolder("sources-ordered"),
+                tempFolder.newFolder("test-sources-ordered"), orderedResourceDir);
+        later.setMigrationNaming(SqlMigrationGenerator.MigrationNaming.CONTENT_HASH);
+        later.setDeclarationOrder(2, 10);
+        later.generateAll();
+        assertTrue(later.getGeneratedFiles().get(0).getName().startsWith("V0002.0010."));
+
+        config.setMigrationVersion("7");
+        File resourceOutputDir = tempFolder.newFolder("resources-explicit");
+        CodeGenerator generator = new CodeGenerator(config, tempFolder.newFolder("sources-explicit"),
+                tempFolder.newFolder("test-sources-explicit"), resourceOutputDir);
+        generator.generateAll();
+        assertEquals("V7__Create_user_table.sql", generator.getGeneratedFiles().get(0).getName());
+    }
+
+    @Test
+    public void testMigrationIndexReportsChangedSqlContent() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        File resourceOutputDir = tempFolder.newFolder("generated-resources");
+        File indexFile = new File(tempFolder.getRoot(), "state/migration-index.properties");
+
+        MigrationIndex index = new MigrationIndex(SqlMigrationGenerator.getMigrationDirectory(resourceOutputDir), indexFile);
+        index.load();
+        CodeGenerator generator = new CodeGenerator(config, tempFolder.newFolder("generated-sources"),
+                tempFolder.newFolder("generated-test-sources"), resourceOutputDir);
+        generator.setMigrationIndex(index);
+        generator.generateAll();
+        index.save();
+        File migrationFile = generator.getGeneratedFiles().get(0);
+
+        MigrationIndex reloaded = new MigrationIndex(SqlMigrationGenerator.getMigrationDirectory(resourceOutputDir), indexFile);
+        reloaded.load();
+        assertEquals("Saved index should find the migration", migrationFile, reloaded.find("user"));
+
+        config.setSqlFileContent(config.getSqlFileContent() + "\n-- changed");
+        List<String> warnings = new ArrayList<>();
+        generator.setMigrationIndex(reloaded);
+        generator.setMessageSink(message -> { });
+        generator.setWarningSink(warnings::add);
+        generator.generateAll();
+
+        assertEquals("Existing migration should be kept", migrationFile, generator.getGeneratedFiles().get(0));
+        assertEquals("Changed SQL content should be reported as a warning", 1, warnings.size());
+        assertTrue(warnings.get(0).startsWith("sqlFileContent of User"));
+    }
+
+    @Test
+    public void testGenerationReportRecordsPhasesPerEntity() throws Exception {
+        File configFile = new File("src/test/resources/sample-schema.yaml");
+        File outputDir = tempFolder.newFolder("generated-sources");
+        File testOutputDir = tempFolder.newFolder("generated-test-sources");
+        File resourceOutputDir = tempFolder.newFolder("generated-resources");
+
+        GenerationReport report = new GenerationReport(Collections.singletonList(configFile));
+        GenerationReport.ConfigFileReport fileReport = report.getConfigFile(configFile);
+        new YamlConfigParser().parseWithTimings(configFile, (config, timings) -> {
+            GenerationReport.EntityReport entityReport = fileReport.addEntity(config.getEntityName());
+            entityReport.addParseTimings(timings);
+            CodeGenerator generator = new CodeGenerator(config, outputDir, testOutputDir, resourceOutputDir);
+            generator.setMessageSink(message -> { });
+            generator.generateAll();
+            entityReport.addGeneration(generator);
+        });
+        report.addPhase("resourceCopy", 1_000_000L);
+        report.finish();
+
+        List<GenerationReport.EntityReport> entities = fileReport.getEntities();
+        assertEquals(3, entities.size());
+        assertEquals(List.of("parse", "modelBuild", "validate", "sql", "entity", "repository", "service",
+                "controller", "write"), new ArrayList<>(entities.get(0).getPhaseNanos().keySet()));
+
+        String json = report.toJson();
+        assertTrue(json.contains("\"entityCount\": 3"));
+        assertTrue(json.contains("\"filesWritten\": 24"));
+        assertTrue(json.contains("\"runPhases\": {\"resourceCopy\": 1.000}"));
+        assertTrue(json.contains("\"entityName\": \"Category\""));
+
+        File reportFile = new File(tempFolder.getRoot(), "codegen/codegen-report.json");
+        report.write(reportFile);
+        assertEquals(json, new String(Files.readAllBytes(reportFile.toPath()), StandardCharsets.UTF_8));
+        assertTrue(report.getSummary().get(0).startsWith("Generation report: 3 entities from 1 configuration file(s)"));
+    }
+
+    @Test
+    public void testGenerationCacheRestoresSourcesOfIdenticalConfiguration() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        GenerationCache cache = new GenerationCache(tempFolder.newFolder("cache"));
+
+        File firstOutputDir = tempFolder.newFolder("first-sources");
+        CodeGenerator first = new CodeGenerator(config, firstOutputDir, tempFolder.newFolder("first-test-sources"),
+                tempFolder.newFolder("first-resources"));
+        first.setCache(cache, "1.0.0");
+        first.generateAll();
+        assertTrue(first.getPhaseNanos().containsKey("entity"));
+
+        // Same configuration parsed again in another checkout
+        CodeGenConfig sameConfig = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        File secondOutputDir = tempFolder.newFolder("second-sources");
+        CodeGenerator second = new CodeGenerator(sameConfig, secondOutputDir, tempFolder.newFolder("second-test-sources"),
+                tempFolder.newFolder("second-resources"));
+        second.setCache(cache, "1.0.0");
+        second.setMessageSink(message -> { });
+        second.generateAll();
+
+        assertTrue("Sources should be restored from the cache", second.getPhaseNanos().containsKey("cacheRestore"));
+        assertFalse(second.getPhaseNanos().containsKey("entity"));
+        assertEquals(first.getGeneratedFiles().size(), second.getGeneratedFiles().size());
+        assertEquals(8, second.getWrittenFileCount());
+        for (File firstFile : first.getGeneratedFiles().subList(1, first.getGeneratedFiles().size())) {
+            File secondFile = new File(secondOutputDir, firstOutputDir.toPath().relativize(firstFile.toPath()).toString());
+            assertArrayEquals(Files.readAllBytes(firstFile.toPath()), Files.readAllBytes(secondFile.toPath()));
+        }
+
+        // With skipIfExists, a restore keeps existing user-owned files but rewrites the base classes
+        File controllerFile = new File(secondOutputDir, "com/example/demo/controller/UserController.java");
+        File baseControllerFile = new File(secondOutputDir, "com/example/demo/controller/base/BaseUserController.java");
+        byte[] baseController = Files.readAllBytes(baseControllerFile.toPath());
+        Files.write(controllerFile.toPath(), "// customized".getBytes(StandardCharsets.UTF_8));
+        Files.write(baseControllerFile.toPath(), "// stale".getBytes(StandardCharsets.UTF_8));
+        CodeGenerator third = new CodeGenerator(config, secondOutputDir,
+                tempFolder.newFolder("third-test-sources"), tempFolder.newFolder("third-resources"));
+        third.setCache(cache, "1.0.0");
+        third.setOverrideBehavior(true, false);
+        third.setMessageSink(message -> { });
+        third.generateAll();
+        assertTrue(third.getPhaseNanos().containsKey("cacheRestore"));
+        assertEquals("// customized", new String(Files.readAllBytes(controllerFile.toPath()), StandardCharsets.UTF_8));
+        assertArrayEquals(baseController, Files.readAllBytes(baseControllerFile.toPath()));
+
+        // A different plugin version or configuration misses the cache
+        assertNotEquals(GenerationCache.keyOf(config, "1.0.0"), GenerationCache.keyOf(config, "1.0.1"));
+        sameConfig.setTableName("app_users");
+        assertNotEquals(GenerationCache.keyOf(config, "1.0.0"), GenerationCache.keyOf(sameConfig, "1.0.0"));
+    }
+
+    @Test
+    public void testGenerationCachePrunesEntriesNoBuildUsed() throws Exception {
+        File cacheDir = tempFolder.newFolder("cache");
+        GenerationCache cache = new GenerationCache(cacheDir);
+        File outputDir = tempFolder.newFolder("sources");
+        File source = new File(outputDir, "com/example/User.java");
+        source.getParentFile().mkdirs();
+        Files.write(source.toPath(), "class User {}".getBytes(StandardCharsets.UTF_8));
+        List<File> sources = Collections.singletonList(source);
+        String unusedKey = GenerationFingerprintStore.sha256("unused".getBytes(StandardCharsets.UTF_8));
+        String restoredKey = GenerationFingerprintStore.sha256("restored".getBytes(StandardCharsets.UTF_8));
+        String freshKey = GenerationFingerprintStore.sha256("fresh".getBytes(StandardCharsets.UTF_8));
+        cache.store(unusedKey, outputDir, sources, FileSystemOutput.INSTANCE);
+        cache.store(restoredKey, outputDir, sources, FileSystemOutput.INSTANCE);
+        cache.store(freshKey, outputDir, sources, FileSystemOutput.INSTANCE);
+
+        // Two entries were stored long ago, but one of them is restored by this build
+        FileTime longAgo = FileTime.from(Instant.now().minus(Duration.ofDays(60)));
+        for (String key : Arrays.asList(unusedKey, restoredKey)) {
+            Files.setLastModifiedTime(cacheDir.toPath().resolve(key.substring(0, 2)).resolve(key).resolve("manifest"),
+                    longAgo);
+        }
+        assertNotNull(cache.load(restoredKey));
+
+        assertEquals(1, cache.prune(Duration.ofDays(30)));
+        assertNull(cache.load(unusedKey));
+        assertNotNull(cache.load(restoredKey));
+        assertNotNull(cache.load(freshKey));
+
+        // The plugin classes are part of the cache settings, so a rebuilt snapshot misses old entries
+        String fingerprint = GenerationCache.pluginFingerprint();
+        assertTrue(fingerprint.matches("[0-9a-f]{64}"));
+        assertEquals(fingerprint, GenerationCache.pluginFingerprint());
+    }
+
+    @Test
+    public void testInMemoryOutputLeavesDiskUntouched() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        File outputDir = new File(tempFolder.getRoot(), "generated-sources");
+        File testOutputDir = new File(tempFolder.getRoot(), "generated-test-sources");
+        File resourceOutputDir = new File(tempFolder.getRoot(), "generated-resources");
+
+        InMemoryOutput output = new InMemoryOutput();
+        CodeGenerator generator = new CodeGenerator(config, outputDir, testOutputDir, resourceOutputDir);
+        generator.setOutput(output);
+        generator.setMessageSink(message -> { });
+        generator.generateAll();
+
+        assertEquals(8, generator.getWrittenFileCount());
+        assertEquals(8, output.getWrittenFiles().size());
+        assertFalse("Nothing should be written to disk", outputDir.exists() || resourceOutputDir.exists());
+        String entitySource = new String(output.getWrittenFiles().get(
+                new File(outputDir, "com/example/demo/entity/User.java").getAbsoluteFile()), StandardCharsets.UTF_8);
+        assertTrue(entitySource.contains("public class User"));
+
+        // Regenerating against the in-memory state finds the existing migration and unchanged sources
+        generator.generateAll();
+        assertEquals(0, generator.getWrittenFileCount());
+        assertEquals(8, generator.getUnchangedFileCount());
+
+        // On top of files on disk only differences are kept in memory
+        CodeGenerator diskGenerator = new CodeGenerator(config, outputDir, testOutputDir, resourceOutputDir);
+        diskGenerator.setMessageSink(message -> { });
+        diskGenerator.generateAll();
+        File entityFile = new File(outputDir, "com/example/demo/entity/User.java");
+        Files.write(entityFile.toPath(), "// edited".getBytes(StandardCharsets.UTF_8));
+
+        InMemoryOutput overlay = new InMemoryOutput();
+        generator.setOutput(overlay);
+        generator.generateAll();
+        assertEquals(Set.of(entityFile.getAbsoluteFile()), overlay.getWrittenFiles().keySet());
+        assertEquals("// edited", new String(Files.readAllBytes(entityFile.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEntityModelResolvesEntityOnceForAllGenerators() throws Exception {
+        CodeGenConfig userConfig = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        userConfig.getFields().add(new CodeGenConfig.Field("lastLogin", "LocalDateTime"));
+        EntityModel user = new EntityModel(userConfig);
+
+        assertEquals("java.lang.Long", user.getIdType().toString());
+        assertEquals(1, user.getIdFields().size());
+        assertTrue(user.getField("id").isId());
+        assertFalse(user.getField("email").isId());
+        assertEquals("java.time.LocalDateTime", user.getField("lastLogin").getJavaType().toString());
+        assertEquals("last_login", user.getField("lastLogin").getColumnName());
+        assertEquals("com.example.demo.repository.UserRepository", user.getRepositoryClass().canonicalName());
+        assertEquals("com.example.demo.controller.base.BaseUserController", user.getBaseControllerClass().canonicalName());
+
+        // Every generator uses the same resolved types
+        File outputDir = tempFolder.newFolder("generated-sources");
+        CodeGenerator generator = new CodeGenerator(user, outputDir, tempFolder.newFolder("generated-test-sources"),
+                tempFolder.newFolder("generated-resources"));
+        generator.setMessageSink(message -> { });
+        generator.generateAll();
+        String entitySource = new String(Files.readAllBytes(
+                new File(outputDir, "com/example/demo/entity/User.java").toPath()), StandardCharsets.UTF_8);
+        assertTrue(entitySource.contains("private LocalDateTime lastLogin;"));
+    }
+
+    @Test
+    public void testLayerSelectionGeneratesOnlySelectedLayers() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        config.setLayers(List.of("entity", "repository"));
+        File outputDir = tempFolder.newFolder("generated-sources");
+        File resourceOutputDir = tempFolder.newFolder("generated-resources");
+
+        CodeGenerator generator = new CodeGenerator(config, outputDir, tempFolder.newFolder("generated-test-sources"),
+                resourceOutputDir);
+        generator.setMessageSink(message -> { });
+        generator.generateAll();
+
+        assertEquals(2, generator.getGeneratedFiles().size());
+        assertTrue(new File(outputDir, "com/example/demo/entity/User.java").exists());
+        assertTrue(new File(outputDir, "com/example/demo/repository/UserRepository.java").exists());
+        assertFalse(new File(outputDir, "com/example/demo/service").exists());
+        assertFalse(new File(resourceOutputDir, "db/migration").exists());
+        assertEquals(List.of("entity", "repository", "write"), new ArrayList<>(generator.getPhaseNanos().keySet()));
+
+        // The plugin default applies to entities without their own selection
+        config.setLayers(null);
+        generator.setDefaultLayers(EnumSet.of(CodeGenerator.Layer.SQL));
+        assertEquals(EnumSet.of(CodeGenerator.Layer.SQL), generator.getLayers());
+
+        // A layer without the layers it needs is rejected when the configuration is read
+        assertRejected("layers: [entity, service]\n", "Layer 'service' requires layer 'repository'");
+    }
+
+    @Test
+    public void testPaginationGeneratesPagedListEndpoint() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        CodeGenConfig.Pagination pagination = new CodeGenConfig.Pagination();
+        pagination.setMaxSize(50);
+        pagination.setSortableFields(List.of("createdAt", "id"));
+        pagination.setMode("slice");
+        config.setPagination(pagination);
+        File generated = generate(config);
+
+        String repository = readSource(generated, "repository/UserRepository.java");
+        assertTrue(repository.contains("Slice<User> findAllBy(Pageable pageable);"));
+        String service = readSource(generated, "service/base/BaseUserServiceImpl.java");
+        assertTrue(service.contains("return userRepository.findAllBy(pageable);"));
+        String controller = readSource(generated, "controller/base/BaseUserController.java");
+        assertTrue(controller.contains("@PageableDefault(size = DEFAULT_PAGE_SIZE, sort = \"createdAt\") Pageable pageable"));
+        assertTrue(controller.contains("public Slice<User> getAllUsers("));
+
+        // Limits are checked when the configuration is read
+        assertRejected("pagination:\n  defaultSize: 200\n  maxSize: 100\n", "defaultSize 200 and maxSize 100");
+    }
+
+    @Test
+    public void testKeysetPaginationGeneratesCursorEndpoint() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        CodeGenConfig.KeysetPagination keyset = new CodeGenConfig.KeysetPagination();
+        keyset.setSortKeys(List.of("createdAt", "id"));
+        keyset.setMaxLimit(500);
+        config.setKeysetPagination(keyset);
+        File generated = generate(config);
+
+        String repository = readSource(generated, "repository/UserRepository.java");
+        assertTrue(repository.contains("@Query(\"SELECT e FROM User e WHERE (e.createdAt > :createdAt) "
+                + "OR (e.createdAt = :createdAt AND e.id > :id) ORDER BY e.createdAt, e.id\")"));
+        assertTrue(readSource(generated, "controller/base/BaseUserController.java").contains("MAX_KEYSET_LIMIT = 500;"));
+
+        // Sort keys must end with the id so that every position is unique
+        assertRejected("keysetPagination:\n  sortKeys: [id, createdAt]\n", "must end with an id field");
+    }
+
+    @Test
+    public void testExportGeneratesStreamingEndpoint() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        CodeGenConfig.Export export = new CodeGenConfig.Export();
+        export.setFetchSize(250);
+        config.setExport(export);
+        File generated = generate(config);
+
+        String repository = readSource(generated, "repository/UserRepository.java");
+        assertTrue(repository.contains("@QueryHint(name = \"org.hibernate.fetchSize\", value = \"250\")"));
+        assertTrue(repository.contains("@QueryHint(name = \"org.hibernate.readOnly\", value = \"true\")"));
+        assertTrue(repository.contains("Stream<User> streamAllBy();"));
+        String serviceImpl = readSource(generated, "service/base/BaseUserServiceImpl.java");
+        assertTrue(serviceImpl.contains("try (Stream<User> entities = userRepository.streamAllBy())"));
+        assertTrue(serviceImpl.contains("entityManager.detach(user);"));
+        String controller = readSource(generated, "controller/base/BaseUserController.java");
+        assertTrue(controller.contains("produces = MediaType.APPLICATION_NDJSON_VALUE"));
+        assertTrue(controller.contains("public ResponseEntity<StreamingResponseBody> exportUsers()"));
+        assertTrue(controller.contains("outputStream.write(objectMapper.writeValueAsBytes(user));"));
+    }
+
+    @Test
+    public void testBatchGeneratesChunkedWriteEndpoints() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        CodeGenConfig.Batch batch = new CodeGenConfig.Batch();
+        batch.setSize(100);
+        batch.setMaxItems(5000);
+        config.setBatch(batch);
+        File generated = generate(config);
+
+        // Chunk commits are checked by GeneratedCodeBehaviorTest; the caller's transaction is suspended
+        String serviceImpl = readSource(generated, "service/base/BaseUserServiceImpl.java");
+        assertTrue(serviceImpl.contains("BATCH_SIZE = 100;"));
+        assertTrue(serviceImpl.contains("propagation = Propagation.NOT_SUPPORTED"));
+        String controller = readSource(generated, "controller/base/BaseUserController.java");
+        assertTrue(controller.contains("MAX_BATCH_ITEMS = 5000;"));
+        assertTrue(controller.contains("@RequestBody @Valid List<User> entities"));
+    }
+
+    @Test
+    public void testSequenceIdGenerationGeneratesSequenceGeneratorAndDdl() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        CodeGenConfig.IdGeneration idGeneration = new CodeGenConfig.IdGeneration();
+        idGeneration.setStrategy("sequence");
+        idGeneration.setAllocationSize(100);
+        config.setIdGeneration(idGeneration);
+        File generated = generate(config);
+
+        String entity = readSource(generated, "entity/User.java");
+        assertTrue(entity.contains("strategy = GenerationType.SEQUENCE"));
+        assertTrue(entity.contains("@SequenceGenerator( name = \"users_seq\", sequenceName = \"users_seq\", allocationSize = 100 )"));
+        assertFalse(entity.contains("GenerationType.IDENTITY"));
+        File[] migrations = new File(generated, "resources/db/migration").listFiles();
+        assertEquals(1, migrations.length);
+        String migration = new String(Files.readAllBytes(migrations[0].toPath()), StandardCharsets.UTF_8);
+        assertTrue(migration.startsWith(config.getSqlFileContent()));
+        assertTrue(migration.endsWith("CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 100;\n"));
+    }
+
+    @Test
+    public void testSwitchToSequenceIdsAddsSequenceMigration() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        File resourceDir = tempFolder.newFolder("resources");
+        File migrationDir = SqlMigrationGenerator.getMigrationDirectory(resourceDir);
+        SqlMigrationGenerator identityGenerator = new SqlMigrationGenerator(config, resourceDir);
+        identityGenerator.setMessageSink(message -> { });
+        identityGenerator.generate();
+        File tableMigration = identityGenerator.getMigrationFile();
+
+        // The table migration is kept and the sequence gets a migration of its own
+        CodeGenConfig.IdGeneration idGeneration = new CodeGenConfig.IdGeneration();
+        idGeneration.setStrategy("sequence");
+        config.setIdGeneration(idGeneration);
+        List<String> warnings = new ArrayList<>();
+        SqlMigrationGenerator sequenceGenerator = new SqlMigrationGenerator(config, resourceDir);
+        sequenceGenerator.setMessageSink(message -> { });
+        sequenceGenerator.setWarningSink(warnings::add);
+        sequenceGenerator.generate();
+        assertEquals(tableMigration, sequenceGenerator.getMigrationFile());
+        assertFalse(sequenceGenerator.isMigrationFileWritten());
+        assertTrue(sequenceGenerator.isSequenceMigrationFileWritten());
+        File sequenceMigration = sequenceGenerator.getSequenceMigrationFile();
+        assertTrue(sequenceMigration.getName().endsWith("__Create_users_seq_sequence.sql"));
+        assertEquals("--liquibase formatted sql\n\n--changeset codegen:create-users_seq\n"
+                + "CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;\n",
+                new String(Files.readAllBytes(sequenceMigration.toPath()), StandardCharsets.UTF_8));
+        assertTrue(warnings.isEmpty());
+        assertEquals(2, migrationDir.listFiles().length);
+
+        // Later runs find the sequence migration instead of adding another one
+        SqlMigrationGenerator nextGenerator = new SqlMigrationGenerator(config, resourceDir);
+        nextGenerator.setMessageSink(message -> { });
+        nextGenerator.generate();
+        assertEquals(sequenceMigration, nextGenerator.getSequenceMigrationFile());
+        MigrationIndex index = new MigrationIndex(migrationDir, null);
+        index.load();
+        assertEquals(sequenceMigration, index.findSequence("users_seq"));
+        assertFalse(nextGenerator.isSequenceMigrationFileWritten());
+        assertEquals(2, migrationDir.listFiles().length);
+    }
+
+    @Test
+    public void testPatchGeneratesBulkUpdateOfSuppliedFields() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        File generated = generate(config);
+
+        // Conversions and responses are checked by GeneratedCodeBehaviorTest
+        String service = readSource(generated, "service/UserService.java");
+        assertTrue("The bypassed optimistic locking is documented", service.contains("no optimistic locking"));
+        assertTrue(readSource(generated, "controller/base/BaseUserController.java").contains("@PatchMapping(\"/{id}\")"));
+
+        // The bulk update would only match the first field of a composite id
+        config.setIdFields(List.of("id", "username"));
+        File compositeGenerated = generate(config);
+        assertFalse(readSource(compositeGenerated, "service/UserService.java").contains(" patch("));
+        assertFalse(readSource(compositeGenerated, "service/base/BaseUserServiceImpl.java").contains("CriteriaUpdate"));
+        assertFalse(readSource(compositeGenerated, "controller/base/BaseUserController.java").contains("@PatchMapping"));
+    }
+
+    @Test
+    public void testDeleteByIdUsesCountingDeleteQuery() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        File generated = generate(config);
+
+        String repository = readSource(generated, "repository/UserRepository.java");
+        assertTrue(repository.contains("@Modifying @Query(\"DELETE FROM User e WHERE e.id = :id\") int deleteRowById(@Param(\"id\") Long id);"));
+        assertTrue(readSource(generated, "service/base/BaseUserServiceImpl.java")
+                .contains("return userRepository.deleteRowById(id);"));
+
+        // The query would delete every row sharing the first field of a composite id
+        config.setIdFields(List.of("id", "username"));
+        File compositeGenerated = generate(config);
+        assertFalse(readSource(compositeGenerated, "repository/UserRepository.java").contains("deleteRowById"));
+        String compositeServiceImpl = readSource(compositeGenerated, "service/base/BaseUserServiceImpl.java");
+        assertTrue(compositeServiceImpl.contains("if (!userRepository.existsById(id)) { return 0; } userRepository.deleteById(id); return 1;"));
+    }
+
+    @Test
+    public void testViewsGenerateRecordProjections() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        config.setViews(Map.of("summary", List.of("id", "username", "createdAt")));
+        File generated = generate(config);
+
+        String record = readSource(generated, "dto/UserSummary.java");
+        assertTrue(record.contains("import java.time.LocalDateTime;"));
+        assertTrue(record.contains("public record UserSummary(Long id, String username, LocalDateTime createdAt) {"));
+        String repository = readSource(generated, "repository/UserRepository.java");
+        assertTrue(repository.contains("@Query(\"SELECT new com.example.demo.dto.UserSummary(e.id, e.username, e.createdAt) FROM User e\") List<UserSummary> findAllAsSummary();"));
+        assertTrue(repository.contains("FROM User e WHERE e.id = :id\") Optional<UserSummary> findByIdAsSummary(@Param(\"id\") Long id);"));
+        String controller = readSource(generated, "controller/base/BaseUserController.java");
+        assertTrue(controller.contains("@GetMapping(\"/{id}/views/summary\")"));
+
+        // Single rows are looked up by the first id field only, which is ambiguous for a composite id
+        config.setIdFields(List.of("id", "username"));
+        File compositeGenerated = generate(config);
+        assertFalse(readSource(compositeGenerated, "repository/UserRepository.java").contains("findByIdAsSummary"));
+        assertFalse(readSource(compositeGenerated, "service/UserService.java").contains("findByIdAsSummary"));
+        assertFalse(readSource(compositeGenerated, "controller/base/BaseUserController.java").contains("/{id}/views/summary"));
+
+        // Views may only select configured fields
+        assertRejected("views:\n  summary: [id, nickname]\n", "Field 'nickname' of view 'summary' not found");
+    }
+
+    /**
+     * Generate all layers of a configuration into a new directory and check that every generated
+     * Java source parses
+     *
+     * @return the directory holding the sources, test-sources and resources directories
+     */
+    private File generate(CodeGenConfig config) throws Exception {
+        File generated = tempFolder.newFolder();
+        CodeGenerator generator = new CodeGenerator(config, new File(generated, "sources"),
+                new File(generated, "test-sources"), new File(generated, "resources"));
+        generator.setMessageSink(message -> { });
+        generator.generateAll();
+        assertParses(new File(generated, "sources"));
+        return generated;
+    }
+
+    /**
+     * Check that all Java sources of a directory are syntactically valid. Types are not resolved,
+     * since the generated code depends on Spring and JPA.
+     */
+    private void assertParses(File sourceDir) throws Exception {
+        List<File> sources;
+        try (Stream<Path> paths = Files.walk(sourceDir.toPath())) {
+            sources = paths.filter(path -> path.toString().endsWith(".java")).map(Path::toFile)
+                    .collect(Collectors.toList());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            JavacTask task = (JavacTask) compiler.getTask(null, fileManager, diagnostics, List.of("-proc:none"), null,
+                    fileManager.getJavaFileObjectsFromFiles(sources));
+            task.parse();
+        }
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                fail(diagnostic.getSource().getName() + ":" + diagnostic.getLineNumber() + ": "
+                        + diagnostic.getMessage(null));
+            }
+        }
+    }
+
+    /**
+     * Read a generated source with every run of whitespace replaced by a single space, so that
+     * checks do not depend on how the code is wrapped and indented
+     */
+    private String readSource(File generated, String path) throws Exception {
+        String source = new String(Files.readAllBytes(
+                new File(generated, "sources/com/example/demo/" + path).toPath()), StandardCharsets.UTF_8);
+        return source.replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Check that the sample configuration followed by the given YAML is rejected when it is read
+     */
+    private void assertRejected(String yamlSuffix, String message) throws Exception {
+        File configFile = tempFolder.newFile();
+        String yaml = new String(Files.readAllBytes(new File("src/test/resources/sample-config.yaml").toPath()),
+                StandardCharsets.UTF_8) + yamlSuffix;
+        Files.write(configFile.toPath(), yaml.getBytes(StandardCharsets.UTF_8));
+        try {
+            new YamlConfigParser().parse(configFile);
+            fail("Expected the configuration to be rejected: " + yamlSuffix);
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
 }
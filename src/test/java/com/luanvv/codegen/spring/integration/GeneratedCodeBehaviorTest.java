@@ -0,0 +1,151 @@
+package com.luanvv.codegen.spring.integration;
+
+import com.luanvv.codegen.spring.CodeGenConfig;
+import com.luanvv.codegen.spring.CodeGenerator;
+import com.luanvv.codegen.spring.YamlConfigParser;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.Assert.*;
+
+/**
+ * Compiles the generated code of an entity with all endpoint options and runs its controller and
+ * service, so that the generated control flow is checked by what it does rather than by its text.
+ *
+ * Spring, JPA and Jackson are not dependencies of the plugin, so the code is compiled against
+ * stubs of the parts of their APIs it uses (src/test/resources/api-stubs) and runs against an
+ * in-memory repository, transaction manager and entity manager (src/test/resources/behavior).
+ */
+public class GeneratedCodeBehaviorTest {
+
+    @ClassRule
+    public static TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static URLClassLoader classLoader;
+
+    @BeforeClass
+    public static void compileGeneratedCode() throws Exception {
+        CodeGenConfig config = new YamlConfigParser().parse(new File("src/test/resources/sample-config.yaml"));
+        CodeGenConfig.Field active = new CodeGenConfig.Field();
+        active.setName("active");
+        active.setType("Boolean");
+        active.setNullable(true);
+        config.getFields().add(active);
+        config.setPagination(new CodeGenConfig.Pagination());
+        CodeGenConfig.KeysetPagination keyset = new CodeGenConfig.KeysetPagination();
+        keyset.setSortKeys(List.of("createdAt", "id"));
+        config.setKeysetPagination(keyset);
+        CodeGenConfig.Batch batch = new CodeGenConfig.Batch();
+        batch.setSize(2);
+        batch.setMaxItems(5);
+        config.setBatch(batch);
+        config.setViews(Map.of("summary", List.of("id", "username", "createdAt")));
+
+        File sourceDir = tempFolder.newFolder("sources");
+        CodeGenerator generator = new CodeGenerator(config, sourceDir, tempFolder.newFolder("test-sources"),
+                tempFolder.newFolder("resources"));
+        generator.setMessageSink(message -> { });
+        generator.generateAll();
+
+        List<File> sources = new ArrayList<>();
+        sources.addAll(javaFiles(sourceDir));
+        sources.addAll(javaFiles(new File("src/test/resources/api-stubs")));
+        sources.addAll(javaFiles(new File("src/test/resources/behavior")));
+        File classesDir = tempFolder.newFolder("classes");
+        compile(sources, classesDir);
+        classLoader = new URLClassLoader(new URL[] {classesDir.toURI().toURL()},
+                GeneratedCodeBehaviorTest.class.getClassLoader());
+    }
+
+    @AfterClass
+    public static void closeClassLoader() throws Exception {
+        if (classLoader != null) {
+            classLoader.close();
+        }
+    }
+
+    @Test
+    public void testKeysetCursorRoundTrip() throws Throwable {
+        run("keysetCursorRoundTrip");
+    }
+
+    @Test
+    public void testPageSizesAndLimitsAreClamped() throws Throwable {
+        run("limitClamping");
+    }
+
+    @Test
+    public void testNoContentAndNotFoundDecisions() throws Throwable {
+        run("statusDecisions");
+    }
+
+    @Test
+    public void testBatchChunksCommitIndependently() throws Throwable {
+        run("batchChunkCommits");
+    }
+
+    @Test
+    public void testPatchConvertsAndRejectsValues() throws Throwable {
+        run("patchTypeConversion");
+    }
+
+    /**
+     * Run one behavior of the compiled driver on a fresh repository
+     */
+    private void run(String behavior) throws Throwable {
+        Class<?> driver = classLoader.loadClass("com.example.demo.behavior.UserEndpointsBehavior");
+        try {
+            driver.getMethod(behavior).invoke(driver.getConstructor().newInstance());
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static List<File> javaFiles(File directory) throws Exception {
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            return paths.filter(path -> path.toString().endsWith(".java")).map(Path::toFile)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static void compile(List<File> sources, File classesDir) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        boolean compiled;
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            // The test class path provides JUnit to the driver
+            List<String> options = List.of("-proc:none", "-d", classesDir.getPath(),
+                    "-classpath", System.getProperty("java.class.path"));
+            compiled = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(sources)).call();
+        }
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                fail(diagnostic.getSource().getName() + ":" + diagnostic.getLineNumber() + ": "
+                        + diagnostic.getMessage(null));
+            }
+        }
+        assertTrue("Generated code should compile", compiled);
+    }
+}
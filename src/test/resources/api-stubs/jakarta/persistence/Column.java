@@ -0,0 +1,11 @@
+package jakarta.persistence;
+
+public @interface Column {
+    String name() default "";
+
+    boolean nullable() default true;
+
+    boolean unique() default false;
+
+    int length() default 255;
+}
@@ -0,0 +1,16 @@
+package jakarta.persistence;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+
+public interface EntityManager {
+    CriteriaBuilder getCriteriaBuilder();
+
+    Query createQuery(CriteriaUpdate<?> updateQuery);
+
+    void flush();
+
+    void clear();
+
+    void detach(Object entity);
+}
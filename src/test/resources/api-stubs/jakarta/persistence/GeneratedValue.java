@@ -0,0 +1,7 @@
+package jakarta.persistence;
+
+public @interface GeneratedValue {
+    GenerationType strategy() default GenerationType.AUTO;
+
+    String generator() default "";
+}
@@ -0,0 +1,7 @@
+package jakarta.persistence.criteria;
+
+public interface CriteriaBuilder {
+    <T> CriteriaUpdate<T> createCriteriaUpdate(Class<T> targetEntity);
+
+    Predicate equal(Expression<?> x, Object y);
+}
@@ -0,0 +1,9 @@
+package jakarta.persistence.criteria;
+
+public interface CriteriaUpdate<T> {
+    Root<T> from(Class<T> entityClass);
+
+    <Y, X extends Y> CriteriaUpdate<T> set(Path<Y> attribute, X value);
+
+    CriteriaUpdate<T> where(Predicate... restrictions);
+}
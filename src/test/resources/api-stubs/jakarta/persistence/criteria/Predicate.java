@@ -0,0 +1,4 @@
+package jakarta.persistence.criteria;
+
+public interface Predicate extends Expression<Boolean> {
+}
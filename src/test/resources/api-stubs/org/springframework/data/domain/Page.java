@@ -0,0 +1,7 @@
+package org.springframework.data.domain;
+
+import java.util.List;
+
+public interface Page<T> {
+    List<T> getContent();
+}
@@ -0,0 +1,46 @@
+package org.springframework.data.domain;
+
+public class PageRequest implements Pageable {
+    private final int page;
+    private final int size;
+    private final Sort sort;
+
+    protected PageRequest(int page, int size, Sort sort) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page index must not be less than zero");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        this.page = page;
+        this.size = size;
+        this.sort = sort;
+    }
+
+    public static PageRequest of(int page, int size) {
+        return of(page, size, Sort.unsorted());
+    }
+
+    public static PageRequest of(int page, int size, Sort sort) {
+        return new PageRequest(page, size, sort);
+    }
+
+    public static PageRequest ofSize(int pageSize) {
+        return of(0, pageSize);
+    }
+
+    @Override
+    public int getPageNumber() {
+        return page;
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+}
@@ -0,0 +1,9 @@
+package org.springframework.data.domain;
+
+public interface Pageable {
+    int getPageNumber();
+
+    int getPageSize();
+
+    Sort getSort();
+}
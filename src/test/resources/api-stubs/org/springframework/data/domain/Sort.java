@@ -0,0 +1,42 @@
+package org.springframework.data.domain;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class Sort implements Iterable<Sort.Order> {
+    private final List<Order> orders;
+
+    private Sort(List<Order> orders) {
+        this.orders = orders;
+    }
+
+    public static Sort by(String... properties) {
+        List<Order> orders = new ArrayList<>();
+        for (String property : properties) {
+            orders.add(new Order(property));
+        }
+        return new Sort(orders);
+    }
+
+    public static Sort unsorted() {
+        return new Sort(new ArrayList<>());
+    }
+
+    @Override
+    public Iterator<Order> iterator() {
+        return orders.iterator();
+    }
+
+    public static class Order {
+        private final String property;
+
+        public Order(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.springframework.data.jpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The methods of Spring Data's repository hierarchy that generated code calls, in one interface
+ */
+public interface JpaRepository<T, ID> {
+    <S extends T> S save(S entity);
+
+    <S extends T> List<S> saveAll(Iterable<S> entities);
+
+    Optional<T> findById(ID id);
+
+    boolean existsById(ID id);
+
+    List<T> findAll();
+
+    Page<T> findAll(Pageable pageable);
+
+    List<T> findAllById(Iterable<ID> ids);
+
+    void deleteById(ID id);
+
+    void deleteAllByIdInBatch(Iterable<ID> ids);
+}
@@ -0,0 +1,4 @@
+package org.springframework.data.jpa.repository;
+
+public @interface Modifying {
+}
@@ -0,0 +1,7 @@
+package org.springframework.data.jpa.repository;
+
+public @interface Query {
+    String value() default "";
+
+    String countQuery() default "";
+}
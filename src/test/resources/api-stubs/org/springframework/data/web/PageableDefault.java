@@ -0,0 +1,7 @@
+package org.springframework.data.web;
+
+public @interface PageableDefault {
+    int size() default 10;
+
+    String[] sort() default {};
+}
@@ -0,0 +1,65 @@
+package org.springframework.http;
+
+public class ResponseEntity<T> {
+    private final HttpStatus status;
+    private final T body;
+
+    public ResponseEntity(T body, HttpStatus status) {
+        this.status = status;
+        this.body = body;
+    }
+
+    public HttpStatus getStatusCode() {
+        return status;
+    }
+
+    public T getBody() {
+        return body;
+    }
+
+    public static BodyBuilder status(HttpStatus status) {
+        return new Builder(status);
+    }
+
+    public static BodyBuilder ok() {
+        return status(HttpStatus.OK);
+    }
+
+    public static <T> ResponseEntity<T> ok(T body) {
+        return ok().body(body);
+    }
+
+    public static HeadersBuilder<?> noContent() {
+        return status(HttpStatus.NO_CONTENT);
+    }
+
+    public static HeadersBuilder<?> notFound() {
+        return status(HttpStatus.NOT_FOUND);
+    }
+
+    public interface HeadersBuilder<B extends HeadersBuilder<B>> {
+        <T> ResponseEntity<T> build();
+    }
+
+    public interface BodyBuilder extends HeadersBuilder<BodyBuilder> {
+        <T> ResponseEntity<T> body(T body);
+    }
+
+    private static class Builder implements BodyBuilder {
+        private final HttpStatus status;
+
+        Builder(HttpStatus status) {
+            this.status = status;
+        }
+
+        @Override
+        public <T> ResponseEntity<T> build() {
+            return body(null);
+        }
+
+        @Override
+        public <T> ResponseEntity<T> body(T body) {
+            return new ResponseEntity<>(body, status);
+        }
+    }
+}
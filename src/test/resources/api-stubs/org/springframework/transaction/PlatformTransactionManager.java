@@ -0,0 +1,9 @@
+package org.springframework.transaction;
+
+public interface PlatformTransactionManager {
+    TransactionStatus getTransaction(TransactionDefinition definition);
+
+    void commit(TransactionStatus status);
+
+    void rollback(TransactionStatus status);
+}
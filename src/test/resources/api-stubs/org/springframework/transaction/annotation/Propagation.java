@@ -0,0 +1,5 @@
+package org.springframework.transaction.annotation;
+
+public enum Propagation {
+    REQUIRED, SUPPORTS, MANDATORY, REQUIRES_NEW, NOT_SUPPORTED, NEVER, NESTED
+}
@@ -0,0 +1,7 @@
+package org.springframework.transaction.annotation;
+
+public @interface Transactional {
+    boolean readOnly() default false;
+
+    Propagation propagation() default Propagation.REQUIRED;
+}
@@ -0,0 +1,29 @@
+package org.springframework.transaction.support;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.function.Consumer;
+
+/**
+ * Runs an action in a transaction, committed when the action returns and rolled back when it throws
+ */
+public class TransactionTemplate implements TransactionDefinition {
+    private final PlatformTransactionManager transactionManager;
+
+    public TransactionTemplate(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    public void executeWithoutResult(Consumer<TransactionStatus> action) {
+        TransactionStatus status = transactionManager.getTransaction(this);
+        try {
+            action.accept(status);
+        } catch (RuntimeException | Error e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+    }
+}
@@ -0,0 +1,7 @@
+package org.springframework.web.bind.annotation;
+
+public @interface PostMapping {
+    String[] value() default {};
+
+    String[] produces() default {};
+}
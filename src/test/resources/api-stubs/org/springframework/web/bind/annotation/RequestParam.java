@@ -0,0 +1,9 @@
+package org.springframework.web.bind.annotation;
+
+public @interface RequestParam {
+    String name() default "";
+
+    boolean required() default true;
+
+    String defaultValue() default "";
+}
@@ -0,0 +1,24 @@
+package org.springframework.web.server;
+
+import org.springframework.http.HttpStatus;
+
+public class ResponseStatusException extends RuntimeException {
+    private final HttpStatus status;
+
+    public ResponseStatusException(HttpStatus status, String reason) {
+        this(status, reason, null);
+    }
+
+    public ResponseStatusException(HttpStatus status, String reason, Throwable cause) {
+        super(reason, cause);
+        this.status = status;
+    }
+
+    public HttpStatus getStatusCode() {
+        return status;
+    }
+
+    public String getReason() {
+        return getMessage();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.behavior;
+
+import com.example.demo.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entity manager running Criteria bulk updates of users by id against an in-memory repository
+ */
+public class InMemoryEntityManager implements EntityManager {
+
+    private final InMemoryUserRepository repository;
+
+    public InMemoryEntityManager(InMemoryUserRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public CriteriaBuilder getCriteriaBuilder() {
+        return new CriteriaBuilder() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> CriteriaUpdate<T> createCriteriaUpdate(Class<T> targetEntity) {
+                return (CriteriaUpdate<T>) new UserUpdate();
+            }
+
+            @Override
+            public Predicate equal(Expression<?> x, Object y) {
+                return new IdEquals(((Attribute<?>) x).name, y);
+            }
+        };
+    }
+
+    @Override
+    public Query createQuery(CriteriaUpdate<?> updateQuery) {
+        UserUpdate update = (UserUpdate) updateQuery;
+        return () -> {
+            User user = repository.row((Long) update.where.value);
+            if (user == null) {
+                return 0;
+            }
+            update.values.forEach((name, value) -> set(user, name, value));
+            return 1;
+        };
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    @Override
+    public void detach(Object entity) {
+    }
+
+    private static void set(User user, String name, Object value) {
+        String setter = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (Method method : User.class.getMethods()) {
+            if (method.getName().equals(setter)) {
+                try {
+                    method.invoke(user, value);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new IllegalStateException(e);
+                }
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Unknown attribute " + name);
+    }
+
+    private static final class Attribute<X> implements Path<X> {
+        private final String name;
+
+        private Attribute(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public <Y> Path<Y> get(String attributeName) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class IdEquals implements Predicate {
+        private final String name;
+        private final Object value;
+
+        private IdEquals(String name, Object value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    private static final class UserUpdate implements CriteriaUpdate<User>, Root<User> {
+        private final Map<String, Object> values = new LinkedHashMap<>();
+        private IdEquals where;
+
+        @Override
+        public Root<User> from(Class<User> entityClass) {
+            return this;
+        }
+
+        @Override
+        public <Y> Path<Y> get(String attributeName) {
+            return new Attribute<>(attributeName);
+        }
+
+        @Override
+        public <Y, X extends Y> CriteriaUpdate<User> set(Path<Y> attribute, X value) {
+            values.put(((Attribute<?>) attribute).name, value);
+            return this;
+        }
+
+        @Override
+        public CriteriaUpdate<User> where(Predicate... restrictions) {
+            if (restrictions.length != 1 || !"id".equals(((IdEquals) restrictions[0]).name)) {
+                throw new UnsupportedOperationException("Only updates by id are supported");
+            }
+            where = (IdEquals) restrictions[0];
+            return this;
+        }
+    }
+}
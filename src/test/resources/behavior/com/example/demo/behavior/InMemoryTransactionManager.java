@@ -0,0 +1,55 @@
+package com.example.demo.behavior;
+
+import com.example.demo.entity.User;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.Map;
+
+/**
+ * Transaction manager over an in-memory repository: a rollback restores the rows as they were
+ * when the transaction began
+ */
+public class InMemoryTransactionManager implements PlatformTransactionManager {
+
+    private final InMemoryUserRepository repository;
+    private int commits;
+    private int rollbacks;
+
+    public InMemoryTransactionManager(InMemoryUserRepository repository) {
+        this.repository = repository;
+    }
+
+    public int getCommits() {
+        return commits;
+    }
+
+    public int getRollbacks() {
+        return rollbacks;
+    }
+
+    @Override
+    public TransactionStatus getTransaction(TransactionDefinition definition) {
+        return new Status(repository.snapshot());
+    }
+
+    @Override
+    public void commit(TransactionStatus status) {
+        commits++;
+    }
+
+    @Override
+    public void rollback(TransactionStatus status) {
+        repository.restore(((Status) status).snapshot);
+        rollbacks++;
+    }
+
+    private static final class Status implements TransactionStatus {
+        private final Map<Long, User> snapshot;
+
+        private Status(Map<Long, User> snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.demo.behavior;
+
+import com.example.demo.dto.UserSummary;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Repository keeping its rows in memory. The queries behave like the generated JPQL, and
+ * username is NOT NULL like in the migration, so a save without it fails.
+ */
+public class InMemoryUserRepository implements UserRepository {
+
+    private static final Comparator<User> KEYSET_ORDER =
+            Comparator.comparing(User::getCreatedAt).thenComparing(User::getId);
+
+    private TreeMap<Long, User> rows = new TreeMap<>();
+    private long nextId = 1;
+    private Pageable lastPageable;
+
+    public Pageable getLastPageable() {
+        return lastPageable;
+    }
+
+    public User row(Long id) {
+        return rows.get(id);
+    }
+
+    public int count() {
+        return rows.size();
+    }
+
+    /**
+     * Copy all rows, to be restored when a transaction is rolled back
+     */
+    Map<Long, User> snapshot() {
+        TreeMap<Long, User> copy = new TreeMap<>();
+        rows.forEach((id, user) -> copy.put(id, copy(user)));
+        return copy;
+    }
+
+    void restore(Map<Long, User> snapshot) {
+        rows = new TreeMap<>(snapshot);
+    }
+
+    private static User copy(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setEmail(user.getEmail());
+        copy.setFirstName(user.getFirstName());
+        copy.setLastName(user.getLastName());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setUpdatedAt(user.getUpdatedAt());
+        copy.setActive(user.getActive());
+        return copy;
+    }
+
+    @Override
+    public <S extends User> S save(S entity) {
+        if (entity.getUsername() == null) {
+            throw new IllegalStateException("NULL not allowed for column username");
+        }
+        if (entity.getId() == null) {
+            entity.setId(nextId++);
+        }
+        rows.put(entity.getId(), entity);
+        return entity;
+    }
+
+    @Override
+    public <S extends User> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return Optional.ofNullable(rows.get(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return rows.containsKey(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return new ArrayList<>(rows.values());
+    }
+
+    @Override
+    public Page<User> findAll(Pageable pageable) {
+        lastPageable = pageable;
+        List<User> content = rows.values().stream()
+                .skip((long) pageable.getPageNumber() * pageable.getPageSize())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        return () -> content;
+    }
+
+    @Override
+    public List<User> findAllById(Iterable<Long> ids) {
+        List<User> found = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        rows.remove(id);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        ids.forEach(rows::remove);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return rows.values().stream().filter(user -> username.equals(user.getUsername())).findFirst();
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return findByUsername(username).isPresent();
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return rows.values().stream().filter(user -> email.equals(user.getEmail())).findFirst();
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return findByEmail(email).isPresent();
+    }
+
+    @Override
+    public Optional<User> findByFirstName(String firstName) {
+        return rows.values().stream().filter(user -> firstName.equals(user.getFirstName())).findFirst();
+    }
+
+    @Override
+    public Optional<User> findByLastName(String lastName) {
+        return rows.values().stream().filter(user -> lastName.equals(user.getLastName())).findFirst();
+    }
+
+    @Override
+    public List<User> findAllByActive(Boolean active) {
+        return rows.values().stream().filter(user -> active.equals(user.getActive())).collect(Collectors.toList());
+    }
+
+    @Override
+    public int deleteRowById(Long id) {
+        return rows.remove(id) != null ? 1 : 0;
+    }
+
+    @Override
+    public List<User> findKeysetFirstPage(Pageable pageable) {
+        lastPageable = pageable;
+        return rows.values().stream()
+                .sorted(KEYSET_ORDER)
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<User> findKeysetPageAfter(LocalDateTime createdAt, Long id, Pageable pageable) {
+        lastPageable = pageable;
+        return rows.values().stream()
+                .filter(user -> user.getCreatedAt().isAfter(createdAt)
+                        || (user.getCreatedAt().equals(createdAt) && user.getId() > id))
+                .sorted(KEYSET_ORDER)
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<UserSummary> findAllAsSummary() {
+        return rows.values().stream().map(InMemoryUserRepository::summaryOf).collect(Collectors.toList());
+    }
+
+    @Override
+    public Page<UserSummary> findAllAsSummary(Pageable pageable) {
+        lastPageable = pageable;
+        List<UserSummary> content = findAllAsSummary().stream().limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        return () -> content;
+    }
+
+    @Override
+    public Optional<UserSummary> findByIdAsSummary(Long id) {
+        return findById(id).map(InMemoryUserRepository::summaryOf);
+    }
+
+    private static UserSummary summaryOf(User user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getCreatedAt());
+    }
+}
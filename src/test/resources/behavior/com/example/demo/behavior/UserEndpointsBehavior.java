@@ -0,0 +1,218 @@
+package com.example.demo.behavior;
+
+import com.example.demo.controller.UserController;
+import com.example.demo.dto.UserSummary;
+import com.example.demo.entity.User;
+import com.example.demo.service.UserService;
+import com.example.demo.service.UserServiceImpl;
+import com.example.demo.service.base.BaseUserServiceImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Calls the generated controller and service of User, wired like Spring would wire them, and
+ * checks the results. Generated with pagination, keyset pagination (createdAt, id), batches of
+ * 2 entities (at most 5 per request), a summary view and a nullable Boolean field 'active'.
+ */
+public class UserEndpointsBehavior {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final InMemoryUserRepository repository = new InMemoryUserRepository();
+    private final InMemoryTransactionManager transactionManager = new InMemoryTransactionManager(repository);
+    private final UserController controller;
+
+    public UserEndpointsBehavior() throws ReflectiveOperationException {
+        UserServiceImpl service = new UserServiceImpl(repository);
+        // Injected by @PersistenceContext
+        Field entityManager = BaseUserServiceImpl.class.getDeclaredField("entityManager");
+        entityManager.setAccessible(true);
+        entityManager.set(service, new InMemoryEntityManager(repository));
+        service.setTransactionManager(transactionManager);
+        controller = new UserController(service);
+    }
+
+    public void keysetCursorRoundTrip() {
+        // Ids and creation times in different orders, with ties on createdAt
+        int[] minutes = {2, 0, 1, 0, 1, 3, 1};
+        for (int i = 0; i < minutes.length; i++) {
+            repository.save(user("user" + (i + 1), T0.plusMinutes(minutes[i])));
+        }
+
+        List<Long> ids = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            UserService.KeysetPage page = controller.getUserKeysetPage(cursor, 2);
+            page.getItems().forEach(user -> ids.add(user.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+            if (pages == 1) {
+                // Rows inserted before the cursor position do not shift the following pages
+                repository.save(user("early", T0.minusMinutes(1)));
+            }
+        } while (cursor != null);
+        assertEquals(Arrays.asList(2L, 4L, 3L, 5L, 7L, 1L, 6L), ids);
+        assertEquals(4, pages);
+
+        // A page that exactly fills the limit is the last one
+        UserService.KeysetPage all = controller.getUserKeysetPage(null, 8);
+        assertEquals(8, all.getItems().size());
+        assertNull(all.getNextCursor());
+
+        assertStatus(HttpStatus.BAD_REQUEST, () -> controller.getUserKeysetPage("not-a-cursor", 2));
+        assertStatus(HttpStatus.BAD_REQUEST, () -> controller.getUserKeysetPage("!!.!!", 2));
+        String invalidTime = controller.getUserKeysetPage(null, 1).getNextCursor().replaceFirst("^[^.]*", "eWVzdGVyZGF5");
+        assertStatus(HttpStatus.BAD_REQUEST, () -> controller.getUserKeysetPage(invalidTime, 2));
+    }
+
+    public void limitClamping() {
+        for (int i = 0; i < 3; i++) {
+            repository.save(user("user" + i, T0.plusMinutes(i)));
+        }
+
+        // One extra row is requested to find out whether there is a next page
+        assertEquals(1, controller.getUserKeysetPage(null, 0).getItems().size());
+        assertEquals(2, repository.getLastPageable().getPageSize());
+        assertEquals(1, controller.getUserKeysetPage(null, -5).getItems().size());
+        assertEquals(3, controller.getUserKeysetPage(null, 10_000).getItems().size());
+        assertEquals(101, repository.getLastPageable().getPageSize());
+
+        controller.getAllUsers(PageRequest.of(2, 500, Sort.by("id")));
+        Pageable limited = repository.getLastPageable();
+        assertEquals(100, limited.getPageSize());
+        assertEquals(2, limited.getPageNumber());
+        Pageable small = PageRequest.of(0, 10, Sort.by("id"));
+        controller.getAllUsers(small);
+        assertSame(small, repository.getLastPageable());
+        controller.getAllUsersAsSummary(PageRequest.of(0, 1000));
+        assertEquals(100, repository.getLastPageable().getPageSize());
+        assertStatus(HttpStatus.BAD_REQUEST, () -> controller.getAllUsers(PageRequest.of(0, 10, Sort.by("email"))));
+    }
+
+    public void statusDecisions() {
+        Long id = repository.save(user("ann", T0)).getId();
+
+        assertEquals(HttpStatus.NOT_FOUND, controller.getUserByIdAsSummary(99L).getStatusCode());
+        ResponseEntity<UserSummary> summary = controller.getUserByIdAsSummary(id);
+        assertEquals(HttpStatus.OK, summary.getStatusCode());
+        assertEquals(new UserSummary(id, "ann", T0), summary.getBody());
+
+        assertEquals(HttpStatus.NO_CONTENT, controller.patchUser(id, Map.of("firstName", "Ann")).getStatusCode());
+        assertEquals("Ann", repository.row(id).getFirstName());
+        assertEquals(HttpStatus.NOT_FOUND, controller.patchUser(99L, Map.of("firstName", "Ann")).getStatusCode());
+        assertEquals(HttpStatus.NO_CONTENT, controller.patchUser(id, Collections.emptyMap()).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, controller.patchUser(99L, Collections.emptyMap()).getStatusCode());
+        assertStatus(HttpStatus.BAD_REQUEST, () -> controller.patchUser(id, Map.of("nickname", "a")));
+        assertStatus(HttpStatus.BAD_REQUEST, () -> controller.patchUser(id, Map.of("id", 2)));
+        assertStatus(HttpStatus.BAD_REQUEST, () -> controller.patchUser(id, Collections.singletonMap("username", null)));
+        assertEquals("ann", repository.row(id).getUsername());
+
+        assertEquals(HttpStatus.NO_CONTENT, controller.deleteUser(id).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, controller.deleteUser(id).getStatusCode());
+        assertEquals(0, repository.count());
+    }
+
+    public void batchChunkCommits() {
+        // The fourth entity violates NOT NULL: its chunk is rolled back, the first chunk stays
+        List<User> created = Arrays.asList(user("a", T0), user("b", T0), user("c", T0), user(null, T0), user("e", T0));
+        try {
+            controller.createUsers(created);
+            fail("Expected the second chunk to fail");
+        } catch (IllegalStateException e) {
+            // Left to the application's error handling
+        }
+        assertEquals(2, repository.count());
+        assertEquals(1, transactionManager.getCommits());
+        assertEquals(1, transactionManager.getRollbacks());
+
+        List<User> valid = Arrays.asList(user("c", T0), user("d", T0), user("e", T0));
+        ResponseEntity<List<User>> response = controller.createUsers(valid);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(3, response.getBody().size());
+        assertEquals(5, repository.count());
+        assertEquals(3, transactionManager.getCommits());
+
+        // The fourth entity does not exist: 404, with the first chunk's changes committed
+        List<Long> ids = repository.findAll().stream().map(User::getId).collect(Collectors.toList());
+        List<User> updates = new ArrayList<>();
+        for (Long id : Arrays.asList(ids.get(0), ids.get(1), ids.get(2), 99L, ids.get(4))) {
+            User update = user("renamed", T0);
+            update.setId(id);
+            updates.add(update);
+        }
+        ResponseStatusException notFound = assertStatus(HttpStatus.NOT_FOUND, () -> controller.updateUsers(updates));
+        assertTrue(notFound.getReason(), notFound.getReason().contains("not found with id: 99; 2 entities"));
+        assertEquals(Arrays.asList("renamed", "renamed", "c", "d", "e"),
+                repository.findAll().stream().map(User::getUsername).collect(Collectors.toList()));
+
+        int commits = transactionManager.getCommits();
+        assertEquals(HttpStatus.NO_CONTENT, controller.deleteUsers(ids).getStatusCode());
+        assertEquals(0, repository.count());
+        assertEquals(commits + 3, transactionManager.getCommits());
+
+        // Oversized batches are rejected before any transaction starts
+        List<Long> tooMany = Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L);
+        assertStatus(HttpStatus.BAD_REQUEST, () -> controller.deleteUsers(tooMany));
+        assertEquals(commits + 3, transactionManager.getCommits());
+    }
+
+    public void patchTypeConversion() {
+        Long id = repository.save(user("ann", T0)).getId();
+
+        assertEquals(HttpStatus.NO_CONTENT, controller.patchUser(id, Map.of("active", true)).getStatusCode());
+        assertEquals(Boolean.TRUE, repository.row(id).getActive());
+        assertEquals(HttpStatus.NO_CONTENT, controller.patchUser(id, Map.of("active", "false")).getStatusCode());
+        assertEquals(Boolean.FALSE, repository.row(id).getActive());
+        // Not silently read as false
+        assertStatus(HttpStatus.BAD_REQUEST, () -> controller.patchUser(id, Map.of("active", "yes")));
+        assertStatus(HttpStatus.BAD_REQUEST, () -> controller.patchUser(id, Map.of("active", 1)));
+        assertEquals(Boolean.FALSE, repository.row(id).getActive());
+        assertEquals(HttpStatus.NO_CONTENT,
+                controller.patchUser(id, Collections.singletonMap("active", null)).getStatusCode());
+        assertNull(repository.row(id).getActive());
+
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("createdAt", "2024-02-03T04:05:06");
+        changes.put("updatedAt", null);
+        assertEquals(HttpStatus.NO_CONTENT, controller.patchUser(id, changes).getStatusCode());
+        assertEquals(LocalDateTime.of(2024, 2, 3, 4, 5, 6), repository.row(id).getCreatedAt());
+        assertStatus(HttpStatus.BAD_REQUEST, () -> controller.patchUser(id, Map.of("createdAt", "yesterday")));
+        assertEquals(LocalDateTime.of(2024, 2, 3, 4, 5, 6), repository.row(id).getCreatedAt());
+        assertEquals(Arrays.asList("ann"), repository.findAll().stream().map(User::getUsername).collect(Collectors.toList()));
+    }
+
+    private static User user(String username, LocalDateTime createdAt) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setCreatedAt(createdAt);
+        return user;
+    }
+
+    private static ResponseStatusException assertStatus(HttpStatus status, Runnable request) {
+        try {
+            request.run();
+        } catch (ResponseStatusException e) {
+            assertEquals(e.getReason(), status, e.getStatusCode());
+            return e;
+        }
+        throw new AssertionError("Expected a " + status + " response");
+    }
+}